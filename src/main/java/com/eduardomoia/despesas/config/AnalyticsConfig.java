@@ -0,0 +1,28 @@
+package com.eduardomoia.despesas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@EnableConfigurationProperties({ExpenseAnalyticsProperties.class, ExpenseReportProperties.class})
+public class AnalyticsConfig {
+
+    // Pool próprio dos relatórios anuais, para não disputar o commonPool com o restante da aplicação
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool expenseReportPool(ExpenseReportProperties properties, DataSource dataSource) throws SQLException {
+        return new ForkJoinPool(properties.effectiveParallelism(connectionPoolSize(dataSource)));
+    }
+
+    // Outro DataSource (sem Hikari) não informa o limite; nesse caso só a configuração explícita vale
+    private static int connectionPoolSize(DataSource dataSource) throws SQLException {
+        return dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                : Integer.MAX_VALUE;
+    }
+}
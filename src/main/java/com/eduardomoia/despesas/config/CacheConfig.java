@@ -0,0 +1,64 @@
+package com.eduardomoia.despesas.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches de leitura de usuários e grupos. Puts e evicts só acontecem depois do commit
+ * (TransactionAwareCacheManagerProxy): nada lido dentro de uma transação que depois é desfeita
+ * entra no cache, e uma alteração não é despejada antes de estar visível para as outras leituras.
+ * As métricas cache.gets/puts/evictions vêm do actuator; a taxa de acerto é exposta à parte.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(LookupCacheProperties.class)
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USER_IDS = "user-ids";
+    public static final String GROUPS = "groups";
+    public static final String GROUP_PAGES = "group-pages";
+
+    static final String HIT_RATIO_METRIC = "despesas.cache.hit.ratio";
+
+    @Bean
+    public CacheManager cacheManager(LookupCacheProperties properties, MeterRegistry meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // Lista fixa: um nome de cache digitado errado falha em vez de criar um cache sem limites
+        cacheManager.setCacheNames(List.of());
+
+        register(cacheManager, meterRegistry, USERS, properties.maximumSize(), properties.ttl());
+        register(cacheManager, meterRegistry, USER_IDS, properties.maximumSize(), properties.ttl());
+        register(cacheManager, meterRegistry, GROUPS, properties.maximumSize(), properties.ttl());
+        register(cacheManager, meterRegistry, GROUP_PAGES, properties.groupPagesMaximumSize(), properties.groupPagesTtl());
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private void register(CaffeineCacheManager cacheManager, MeterRegistry meterRegistry,
+                          String name, long maximumSize, Duration ttl) {
+        Cache<Object, Object> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        cacheManager.registerCustomCache(name, cache);
+        Gauge.builder(HIT_RATIO_METRIC, cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .description("Fração das leituras atendidas pelo cache")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "despesas.analytics")
+public record ExpenseAnalyticsProperties(
+        // Soma estimada dos snapshots colunares em memória; acima disso os menos usados são descartados
+        @DefaultValue("64MB") @NotNull DataSize maxMemory
+) {
+}
@@ -0,0 +1,24 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "despesas.import")
+public record ExpenseImportProperties(
+        @NotNull Path storageDir,
+        // Linhas por transação; cada chunk confirmado é um ponto de retomada
+        @DefaultValue("500") @Positive @Max(1000) int chunkSize,
+        @DefaultValue("2") @Positive int threads,
+        // Importações aguardando execução; acima disso o upload responde 503
+        @DefaultValue("8") @Positive int queueCapacity,
+        @DefaultValue("30s") @NotNull Duration retryAfter
+) {
+}
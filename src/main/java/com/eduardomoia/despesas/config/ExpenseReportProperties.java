@@ -0,0 +1,30 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "despesas.reports")
+public record ExpenseReportProperties(
+        // 0 usa a quantidade de processadores, limitada à metade do pool JDBC; cada tarefa ocupa uma conexão enquanto roda
+        @DefaultValue("0") @PositiveOrZero int parallelism,
+        @DefaultValue("30s") @NotNull Duration timeout
+) {
+
+    // Um relatório não pode tomar o pool inteiro: as demais requisições esperariam até o connectionTimeout
+    public int effectiveParallelism(int connectionPoolSize) {
+        if (parallelism == 0) {
+            return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), connectionPoolSize / 2));
+        }
+        if (parallelism >= connectionPoolSize) {
+            throw new IllegalStateException("despesas.reports.parallelism=" + parallelism
+                    + " deve ser menor que o tamanho do pool JDBC (" + connectionPoolSize + ").");
+        }
+        return parallelism;
+    }
+}
@@ -0,0 +1,15 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "despesas.rollup")
+public record ExpenseRollupProperties(
+        @DefaultValue("0 30 3 * * *") @NotBlank String verifyCron,
+        @DefaultValue("true") boolean repairOnMismatch,
+        @DefaultValue("true") boolean backfillOnStartup
+) {
+}
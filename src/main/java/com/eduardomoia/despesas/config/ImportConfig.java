@@ -0,0 +1,29 @@
+package com.eduardomoia.despesas.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(ExpenseImportProperties.class)
+public class ImportConfig {
+
+    // Pool e fila limitados: o excesso é recusado no upload em vez de acumular arquivos em memória ou disco
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor expenseImportExecutor(ExpenseImportProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.threads(),
+                properties.threads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                new CustomizableThreadFactory("expense-import-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
@@ -1,14 +1,21 @@
 package com.eduardomoia.despesas.config;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 @Validated
 @ConfigurationProperties(prefix = "security.jwt")
 public record JwtProperties(
         @NotBlank String secret,
-        @Positive long expirationMs
+        @Positive long expirationMs,
+        @DefaultValue("10000") @Positive long cacheMaximumSize,
+        @DefaultValue("false") boolean statelessPrincipal,
+        @DefaultValue("0s") @NotNull Duration principalCacheTtl
 ) {
 }
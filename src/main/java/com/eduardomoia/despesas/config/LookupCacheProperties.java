@@ -0,0 +1,21 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "despesas.cache")
+public record LookupCacheProperties(
+        @DefaultValue("10000") @Min(1) long maximumSize,
+        @DefaultValue("10m") Duration ttl,
+        // Uma entrada por dono com as páginas já consultadas por ele
+        @DefaultValue("2000") @Min(1) long groupPagesMaximumSize,
+        @DefaultValue("5m") Duration groupPagesTtl,
+        // Páginas distintas (page/size/sort) guardadas por dono; acima disso as menos usadas saem
+        @DefaultValue("20") @Min(1) long groupPagesPerOwner
+) {
+}
@@ -0,0 +1,14 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "despesas.ownership")
+public record OwnershipIndexProperties(
+        @DefaultValue("0 45 3 * * *") @NotBlank String verifyCron,
+        @DefaultValue("true") boolean repairOnMismatch
+) {
+}
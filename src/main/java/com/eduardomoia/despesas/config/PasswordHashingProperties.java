@@ -0,0 +1,31 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "security.password-hashing")
+public record PasswordHashingProperties(
+        // 0 usa a quantidade de processadores disponíveis
+        @DefaultValue("0") @PositiveOrZero int threads,
+        @DefaultValue("64") @Positive int queueCapacity,
+        @DefaultValue("10s") @NotNull Duration timeout,
+        @DefaultValue("1s") @NotNull Duration retryAfter,
+        @DefaultValue("true") boolean calibrate,
+        @DefaultValue("100ms") @NotNull Duration targetLatency,
+        @DefaultValue("10") @Min(4) @Max(31) int minStrength,
+        @DefaultValue("16") @Min(4) @Max(31) int maxStrength
+) {
+
+    public int effectiveThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,18 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "despesas.recurring")
+public record RecurringExpenseProperties(
+        @DefaultValue("0 5 0 * * *") @NotBlank String cron,
+        @DefaultValue("500") @Min(1) @Max(1000) int batchSize,
+        @DefaultValue("24") @Min(1) int maxCatchUpPeriods,
+        @DefaultValue("true") boolean catchUpOnStartup
+) {
+}
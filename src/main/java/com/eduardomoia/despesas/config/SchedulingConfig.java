@@ -0,0 +1,15 @@
+package com.eduardomoia.despesas.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({
+        ExpenseRollupProperties.class,
+        RecurringExpenseProperties.class,
+        OwnershipIndexProperties.class
+})
+public class SchedulingConfig {
+}
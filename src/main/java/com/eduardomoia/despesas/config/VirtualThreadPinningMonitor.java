@@ -0,0 +1,101 @@
+package com.eduardomoia.despesas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acompanha pelo JFR os momentos em que uma thread virtual bloqueia presa à thread carregadora
+ * (dentro de synchronized ou de código nativo), o que anula o ganho das threads virtuais no caminho
+ * JDBC. Cada ocorrência acima do limite vira um log com as primeiras frames e incrementa
+ * despesas.virtual-threads.pinned, marcado pela biblioteca de onde veio. O evento só existe a partir
+ * do Java 21; em JVMs anteriores o monitor não inicia.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String PINNED_METRIC = "despesas.virtual-threads.pinned";
+
+    private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+    static {
+        SOURCES.put("com.eduardomoia.", "app");
+        SOURCES.put("org.h2.", "h2");
+        SOURCES.put("com.zaxxer.hikari.", "hikari");
+        SOURCES.put("org.hibernate.", "hibernate");
+        SOURCES.put("org.springframework.", "spring");
+        SOURCES.put("org.apache.catalina.", "tomcat");
+        SOURCES.put("org.apache.tomcat.", "tomcat");
+        SOURCES.put("org.apache.coyote.", "tomcat");
+    }
+
+    private final VirtualThreadPinningProperties properties;
+    private final MeterRegistry meterRegistry;
+    private volatile RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("Monitor de pinning desativado: threads virtuais exigem Java 21+ (atual: {})", Runtime.version());
+            return;
+        }
+
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(properties.threshold()).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Monitor de pinning de threads virtuais ativo (limite {} ms)", properties.threshold().toMillis());
+    }
+
+    public void close() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        List<String> frames = framesOf(event.getStackTrace());
+        String source = sourceOf(frames);
+        meterRegistry.counter(PINNED_METRIC, "source", source).increment();
+        log.warn("Thread virtual presa à carregadora por {} ms (origem={}): {}",
+                event.getDuration().toMillis(), source,
+                frames.subList(0, Math.min(properties.stackDepth(), frames.size())));
+    }
+
+    // Do topo para a base: a primeira frame de um pacote conhecido aponta quem segurava o monitor ao bloquear
+    static String sourceOf(List<String> frames) {
+        for (String frame : frames) {
+            for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+                if (frame.startsWith(source.getKey())) {
+                    return source.getValue();
+                }
+            }
+        }
+        return "other";
+    }
+
+    private static List<String> framesOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .toList();
+    }
+}
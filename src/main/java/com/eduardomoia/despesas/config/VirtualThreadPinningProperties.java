@@ -0,0 +1,18 @@
+package com.eduardomoia.despesas.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "despesas.virtual-threads.pinning")
+public record VirtualThreadPinningProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("20ms") @NotNull Duration threshold,
+        @DefaultValue("8") @Min(1) int stackDepth
+) {
+}
@@ -0,0 +1,21 @@
+package com.eduardomoia.despesas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Tomcat e o executor de tarefas passam a threads virtuais pelo próprio Spring Boot (spring.threads.virtual.enabled,
+// perfil virtual-threads); aqui fica só o diagnóstico de pinning
+@Configuration
+@EnableConfigurationProperties(VirtualThreadPinningProperties.class)
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "despesas.virtual-threads.pinning", name = "enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadPinningProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties, meterRegistry);
+    }
+}
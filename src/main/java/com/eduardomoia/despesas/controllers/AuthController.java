@@ -4,9 +4,7 @@ import com.eduardomoia.despesas.dtos.auth.AuthRequestDTO;
 import com.eduardomoia.despesas.dtos.auth.AuthResponseDTO;
 import com.eduardomoia.despesas.dtos.user.UserCreateDTO;
 import com.eduardomoia.despesas.dtos.user.UserResponseDTO;
-import com.eduardomoia.despesas.entities.User;
-import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
-import com.eduardomoia.despesas.repositories.UserRepository;
+import com.eduardomoia.despesas.security.AuthenticatedUser;
 import com.eduardomoia.despesas.security.JwtService;
 import com.eduardomoia.despesas.services.UserService;
 import jakarta.validation.Valid;
@@ -14,7 +12,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 @CrossOrigin(origins = "*")
@@ -25,7 +22,6 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
-    private final UserRepository userRepository;
     private final UserService userService;
 
     @PostMapping("/register")
@@ -44,12 +40,10 @@ public class AuthController {
                 )
         );
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        // O principal já traz id, nome e roles carregados na autenticação
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
 
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
-
-        String token = jwtService.generateToken(userDetails);
+        String token = jwtService.generateToken(user);
 
         AuthResponseDTO response = new AuthResponseDTO(
                 token,
@@ -0,0 +1,35 @@
+package com.eduardomoia.despesas.controllers;
+
+import com.eduardomoia.despesas.exceptions.PreconditionFailedException;
+
+// ETag das despesas e grupos: a versão otimista (@Version) entre aspas
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Sem If-Match ou com "*" não há pré-condição; aceita a forma fraca (W/"3") que proxies costumam devolver
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match inválido: " + ifMatch);
+        }
+
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match inválido: " + ifMatch);
+        }
+    }
+}
@@ -1,21 +1,44 @@
 package com.eduardomoia.despesas.controllers;
 
+import com.eduardomoia.despesas.dtos.expense.ExpenseBatchCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseBatchResultDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO;
 import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseExportFormat;
+import com.eduardomoia.despesas.dtos.expense.ExpenseFilterDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpensePatchDTO;
 import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSliceDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSplitDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSplitResponseDTO;
 import com.eduardomoia.despesas.dtos.expense.ExpenseUpdateDTO;
+import com.eduardomoia.despesas.services.ExpenseExportService;
+import com.eduardomoia.despesas.services.ExpenseSearchService;
 import com.eduardomoia.despesas.services.ExpenseService;
+import com.eduardomoia.despesas.services.ExpenseSplitService;
+import com.eduardomoia.despesas.services.ExpenseSummaryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @CrossOrigin(origins = "http://localhost:4200")
 @RestController
@@ -25,6 +48,10 @@ import org.springframework.web.bind.annotation.*;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseSummaryService expenseSummaryService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseSplitService expenseSplitService;
 
     @PostMapping
     public ResponseEntity<ExpenseResponseDTO> create(
@@ -34,18 +61,29 @@ public class ExpenseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
-    // Lista todas as despesas, com opção de filtrar por grupo (?groupId=)
+    // Criação em lote (importação de extratos): responde 201 com o resultado de cada item, mesmo com falhas parciais
+    @PostMapping("/batch")
+    public ResponseEntity<ExpenseBatchResultDTO> createBatch(
+            @AuthenticationPrincipal UserDetails principal,
+            @Valid @RequestBody ExpenseBatchCreateDTO dto) {
+        ExpenseBatchResultDTO result = expenseService.createBatch(dto.items(), principal.getUsername());
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    // Lista todas as despesas, com filtros opcionais por grupo, período, categorias e faixa de valor
     @GetMapping
     public ResponseEntity<Page<ExpenseResponseDTO>> list(
             @AuthenticationPrincipal UserDetails principal,
-            @RequestParam(required = false) Long groupId,
+            ExpenseFilterDTO filter,
             @PageableDefault(size = 20, sort = "date", direction = Sort.Direction.DESC)
             Pageable pageable) {
 
         Page<ExpenseResponseDTO> page;
 
-        if (groupId != null) {
-            page = expenseService.findByGroup(groupId, pageable, principal.getUsername());
+        if (filter.hasCriteria()) {
+            page = expenseService.search(filter, pageable, principal.getUsername());
+        } else if (filter.groupId() != null) {
+            page = expenseService.findByGroup(filter.groupId(), pageable, principal.getUsername());
         } else {
             page = expenseService.findAll(pageable, principal.getUsername());
         }
@@ -53,22 +91,136 @@ public class ExpenseController {
         return ResponseEntity.ok(page);
     }
 
+    // Paginação por cursor para scroll infinito: custo constante por página e sem count(*)
+    @GetMapping("/scroll")
+    public ResponseEntity<ExpenseSliceDTO> scroll(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(required = false) Long groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        ExpenseSliceDTO slice;
+
+        if (groupId != null) {
+            slice = expenseService.scrollByGroup(groupId, cursor, size, principal.getUsername());
+        } else {
+            slice = expenseService.scroll(cursor, size, principal.getUsername());
+        }
+
+        return ResponseEntity.ok(slice);
+    }
+
+    // Busca textual na descrição (sem acentos, por prefixo), ranqueada e restrita aos grupos do usuário
+    @GetMapping("/search")
+    public ResponseEntity<List<ExpenseResponseDTO>> search(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(expenseSearchService.search(query, limit, principal.getUsername()));
+    }
+
+    // Exporta todas as despesas do usuário em streaming (?format=CSV|NDJSON)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(defaultValue = "CSV") ExpenseExportFormat format) {
+
+        String email = principal.getUsername();
+        StreamingResponseBody body = output -> expenseExportService.export(email, format, output);
+
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("despesas." + format.getExtension())
+                .build();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(body);
+    }
+
+    // Totais por categoria no período, opcionalmente restritos a um grupo (?groupId=)
+    @GetMapping("/summary/categories")
+    public ResponseEntity<List<ExpenseCategorySummaryDTO>> summaryByCategory(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long groupId) {
+        return ResponseEntity.ok(expenseSummaryService.summarizeByCategory(from, to, groupId, principal.getUsername()));
+    }
+
+    @GetMapping("/summary/months")
+    public ResponseEntity<List<ExpenseMonthlySummaryDTO>> summaryByMonth(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long groupId) {
+        return ResponseEntity.ok(expenseSummaryService.summarizeByMonth(from, to, groupId, principal.getUsername()));
+    }
+
+    @GetMapping("/summary/groups")
+    public ResponseEntity<List<ExpenseGroupSummaryDTO>> summaryByGroup(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(expenseSummaryService.summarizeByGroup(from, to, principal.getUsername()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ExpenseResponseDTO> getById(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long id) {
         ExpenseResponseDTO expense = expenseService.findById(id, principal.getUsername());
-        return ResponseEntity.ok(expense);
+        return ResponseEntity.ok().eTag(EntityTags.of(expense.version())).body(expense);
     }
 
+    // If-Match opcional: com ele, a alteração só é aplicada se a despesa ainda estiver na versão informada (senão 412)
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseResponseDTO> update(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ExpenseUpdateDTO dto) {
 
-        ExpenseResponseDTO updated = expenseService.update(id, dto, principal.getUsername());
-        return ResponseEntity.ok(updated);
+        ExpenseResponseDTO updated = expenseService.update(id, dto, EntityTags.expectedVersion(ifMatch),
+                principal.getUsername());
+        return ResponseEntity.ok().eTag(EntityTags.of(updated.version())).body(updated);
+    }
+
+    // Alteração parcial: só os campos enviados mudam
+    @PatchMapping("/{id}")
+    public ResponseEntity<ExpenseResponseDTO> patch(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ExpensePatchDTO dto) {
+
+        ExpenseResponseDTO updated = expenseService.patch(id, dto, EntityTags.expectedVersion(ifMatch),
+                principal.getUsername());
+        return ResponseEntity.ok().eTag(EntityTags.of(updated.version())).body(updated);
+    }
+
+    @GetMapping("/{id}/split")
+    public ResponseEntity<ExpenseSplitResponseDTO> getSplit(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(expenseSplitService.findSplit(id, principal.getUsername()));
+    }
+
+    // Define quem pagou e como a despesa se divide; substitui uma divisão anterior
+    @PutMapping("/{id}/split")
+    public ResponseEntity<ExpenseSplitResponseDTO> split(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id,
+            @Valid @RequestBody ExpenseSplitDTO dto) {
+        return ResponseEntity.ok(expenseSplitService.split(id, dto, principal.getUsername()));
+    }
+
+    @DeleteMapping("/{id}/split")
+    public ResponseEntity<Void> removeSplit(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id) {
+        expenseSplitService.removeSplit(id, principal.getUsername());
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
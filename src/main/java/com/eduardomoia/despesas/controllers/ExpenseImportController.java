@@ -0,0 +1,54 @@
+package com.eduardomoia.despesas.controllers;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseImportJobDTO;
+import com.eduardomoia.despesas.entities.enums.ExpenseImportFormat;
+import com.eduardomoia.despesas.services.ExpenseImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("/api/expense-imports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('USER')")
+public class ExpenseImportController {
+
+    private final ExpenseImportService expenseImportService;
+
+    // Aceita o arquivo e responde 202 de imediato; o progresso é consultado pelo id do job
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ExpenseImportJobDTO> submit(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam Long groupId,
+            @RequestParam(defaultValue = "CSV") ExpenseImportFormat format,
+            @RequestPart("file") MultipartFile file) throws IOException {
+
+        ExpenseImportJobDTO job = expenseImportService.submit(
+                file.getInputStream(), file.getOriginalFilename(), format, groupId, principal.getUsername());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExpenseImportJobDTO> getById(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(expenseImportService.findById(id, principal.getUsername()));
+    }
+
+    // Retoma uma importação com falha a partir do último chunk confirmado
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ExpenseImportJobDTO> resume(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(expenseImportService.resume(id, principal.getUsername()));
+    }
+}
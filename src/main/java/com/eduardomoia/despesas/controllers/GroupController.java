@@ -1,10 +1,22 @@
 package com.eduardomoia.despesas.controllers;
 
+import com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO;
 import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSliceDTO;
+import com.eduardomoia.despesas.dtos.group.GroupBalancesDTO;
+import com.eduardomoia.despesas.dtos.group.GroupBudgetStatusDTO;
+import com.eduardomoia.despesas.dtos.group.GroupBudgetUpdateDTO;
 import com.eduardomoia.despesas.dtos.group.GroupCreateDTO;
+import com.eduardomoia.despesas.dtos.group.GroupMemberAddDTO;
+import com.eduardomoia.despesas.dtos.group.GroupMemberDTO;
+import com.eduardomoia.despesas.dtos.group.GroupPatchDTO;
 import com.eduardomoia.despesas.dtos.group.GroupResponseDTO;
+import com.eduardomoia.despesas.dtos.group.GroupSettlementCreateDTO;
 import com.eduardomoia.despesas.dtos.group.GroupUpdateDTO;
 import com.eduardomoia.despesas.services.ExpenseService;
+import com.eduardomoia.despesas.services.ExpenseSummaryService;
+import com.eduardomoia.despesas.services.GroupMemberService;
 import com.eduardomoia.despesas.services.GroupService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +24,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +33,10 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
 @CrossOrigin(origins = "*")
 @RestController
 @RequestMapping("/api/groups")
@@ -27,7 +45,9 @@ import org.springframework.web.bind.annotation.*;
 public class GroupController {
 
     private final GroupService groupService;
+    private final GroupMemberService groupMemberService;
     private final ExpenseService expenseService;
+    private final ExpenseSummaryService expenseSummaryService;
 
     @PostMapping
     public ResponseEntity<GroupResponseDTO> create(
@@ -47,22 +67,101 @@ public class GroupController {
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping("/budgets")
+    public ResponseEntity<List<GroupBudgetStatusDTO>> listBudgets(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(required = false) YearMonth month) {
+        return ResponseEntity.ok(groupService.budgetStatuses(month, principal.getUsername()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GroupResponseDTO> getById(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long id) {
         GroupResponseDTO group = groupService.findById(id, principal.getUsername());
-        return ResponseEntity.ok(group);
+        return ResponseEntity.ok().eTag(EntityTags.of(group.version())).body(group);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<GroupResponseDTO> update(
             @AuthenticationPrincipal UserDetails principal,
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody GroupUpdateDTO dto) {
 
-        GroupResponseDTO updated = groupService.update(id, dto, principal.getUsername());
-        return ResponseEntity.ok(updated);
+        GroupResponseDTO updated = groupService.update(id, dto, EntityTags.expectedVersion(ifMatch),
+                principal.getUsername());
+        return ResponseEntity.ok().eTag(EntityTags.of(updated.version())).body(updated);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<GroupResponseDTO> patch(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody GroupPatchDTO dto) {
+
+        GroupResponseDTO updated = groupService.patch(id, dto, EntityTags.expectedVersion(ifMatch),
+                principal.getUsername());
+        return ResponseEntity.ok().eTag(EntityTags.of(updated.version())).body(updated);
+    }
+
+    @PutMapping("/{id}/budget")
+    public ResponseEntity<GroupBudgetStatusDTO> updateBudget(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id,
+            @Valid @RequestBody GroupBudgetUpdateDTO dto) {
+        return ResponseEntity.ok(groupService.updateBudget(id, dto, principal.getUsername()));
+    }
+
+    @GetMapping("/{id}/budget")
+    public ResponseEntity<GroupBudgetStatusDTO> getBudget(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id,
+            @RequestParam(required = false) YearMonth month) {
+        return ResponseEntity.ok(groupService.budgetStatus(id, month, principal.getUsername()));
+    }
+
+    @GetMapping("/{id}/members")
+    public ResponseEntity<List<GroupMemberDTO>> listMembers(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(groupMemberService.findMembers(id, principal.getUsername()));
+    }
+
+    @PostMapping("/{id}/members")
+    public ResponseEntity<GroupMemberDTO> addMember(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id,
+            @Valid @RequestBody GroupMemberAddDTO dto) {
+        GroupMemberDTO member = groupMemberService.addMember(id, dto, principal.getUsername());
+        return ResponseEntity.status(HttpStatus.CREATED).body(member);
+    }
+
+    @DeleteMapping("/{id}/members/{userId}")
+    public ResponseEntity<Void> removeMember(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id,
+            @PathVariable Long userId) {
+        groupMemberService.removeMember(id, userId, principal.getUsername());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Saldos líquidos por membro e o conjunto de transferências que zera todos eles
+    @GetMapping("/{id}/balances")
+    public ResponseEntity<GroupBalancesDTO> balances(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(groupMemberService.balances(id, principal.getUsername()));
+    }
+
+    @PostMapping("/{id}/settlements")
+    public ResponseEntity<GroupBalancesDTO> recordSettlement(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id,
+            @Valid @RequestBody GroupSettlementCreateDTO dto) {
+        GroupBalancesDTO balances = groupMemberService.recordSettlement(id, dto, principal.getUsername());
+        return ResponseEntity.status(HttpStatus.CREATED).body(balances);
     }
 
     @DeleteMapping("/{id}")
@@ -83,4 +182,33 @@ public class GroupController {
         Page<ExpenseResponseDTO> page = expenseService.findByGroup(groupId, pageable, principal.getUsername());
         return ResponseEntity.ok(page);
     }
+
+    @GetMapping("/{groupId}/expenses/scroll")
+    public ResponseEntity<ExpenseSliceDTO> scrollExpensesByGroup(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        ExpenseSliceDTO slice = expenseService.scrollByGroup(groupId, cursor, size, principal.getUsername());
+        return ResponseEntity.ok(slice);
+    }
+
+    @GetMapping("/{groupId}/expenses/summary/categories")
+    public ResponseEntity<List<ExpenseCategorySummaryDTO>> expenseSummaryByCategory(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long groupId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(expenseSummaryService.summarizeByCategory(from, to, groupId, principal.getUsername()));
+    }
+
+    @GetMapping("/{groupId}/expenses/summary/months")
+    public ResponseEntity<List<ExpenseMonthlySummaryDTO>> expenseSummaryByMonth(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long groupId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(expenseSummaryService.summarizeByMonth(from, to, groupId, principal.getUsername()));
+    }
 }
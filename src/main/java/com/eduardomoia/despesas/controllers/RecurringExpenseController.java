@@ -0,0 +1,58 @@
+package com.eduardomoia.despesas.controllers;
+
+import com.eduardomoia.despesas.dtos.expense.RecurringExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.RecurringExpenseResponseDTO;
+import com.eduardomoia.despesas.services.RecurringExpenseService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("/api/recurring-expenses")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('USER')")
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    @PostMapping
+    public ResponseEntity<RecurringExpenseResponseDTO> create(
+            @AuthenticationPrincipal UserDetails principal,
+            @Valid @RequestBody RecurringExpenseCreateDTO dto) {
+        RecurringExpenseResponseDTO created = recurringExpenseService.create(dto, principal.getUsername());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @GetMapping
+    public ResponseEntity<Page<RecurringExpenseResponseDTO>> list(
+            @AuthenticationPrincipal UserDetails principal,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.ASC)
+            Pageable pageable) {
+        return ResponseEntity.ok(recurringExpenseService.findAll(pageable, principal.getUsername()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringExpenseResponseDTO> getById(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(recurringExpenseService.findById(id, principal.getUsername()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable Long id) {
+        recurringExpenseService.delete(id, principal.getUsername());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.eduardomoia.despesas.controllers;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseFilterDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportGrouping;
+import com.eduardomoia.despesas.dtos.expense.ExpenseYearlyReportDTO;
+import com.eduardomoia.despesas.services.ExpenseReportService;
+import com.eduardomoia.despesas.services.ExpenseYearlyReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('USER')")
+public class ReportController {
+
+    private final ExpenseReportService expenseReportService;
+    private final ExpenseYearlyReportService expenseYearlyReportService;
+
+    // Agrega as despesas do usuário (?groupBy=CATEGORY|GROUP|YEAR|MONTH|DAY_OF_WEEK|NONE) com os mesmos filtros da listagem
+    @GetMapping("/expenses")
+    public ResponseEntity<ExpenseReportDTO> expenses(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(defaultValue = "CATEGORY") ExpenseReportGrouping groupBy,
+            ExpenseFilterDTO filter) {
+        return ResponseEntity.ok(expenseReportService.report(groupBy, filter, principal.getUsername()));
+    }
+
+    // Relatório anual por mês, grupo e categoria, calculado em paralelo por (grupo, mês)
+    @GetMapping("/expenses/yearly")
+    public ResponseEntity<ExpenseYearlyReportDTO> yearly(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam int year) {
+        return ResponseEntity.ok(expenseYearlyReportService.report(year, principal.getUsername()));
+    }
+}
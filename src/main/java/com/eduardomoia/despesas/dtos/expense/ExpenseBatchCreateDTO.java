@@ -0,0 +1,15 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// Os itens são validados individualmente no serviço, para que um item inválido não derrube o lote todo
+public record ExpenseBatchCreateDTO(
+
+        @NotEmpty
+        @Size(max = 1000)
+        List<ExpenseCreateDTO> items
+
+) {}
@@ -0,0 +1,16 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+public record ExpenseBatchItemResultDTO(
+        int index,
+        ExpenseResponseDTO expense,
+        String error
+) {
+
+    public static ExpenseBatchItemResultDTO created(int index, ExpenseResponseDTO expense) {
+        return new ExpenseBatchItemResultDTO(index, expense, null);
+    }
+
+    public static ExpenseBatchItemResultDTO failed(int index, String error) {
+        return new ExpenseBatchItemResultDTO(index, null, error);
+    }
+}
@@ -0,0 +1,9 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.util.List;
+
+public record ExpenseBatchResultDTO(
+        int created,
+        int failed,
+        List<ExpenseBatchItemResultDTO> items
+) {}
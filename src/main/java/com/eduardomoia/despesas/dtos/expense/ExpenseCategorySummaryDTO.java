@@ -0,0 +1,26 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record ExpenseCategorySummaryDTO(
+        ExpenseCategory category,
+        BigDecimal total,
+        long count,
+        BigDecimal average
+) {
+
+    // Usado nas projeções JPQL (sum/count)
+    public ExpenseCategorySummaryDTO(ExpenseCategory category, BigDecimal total, Long count) {
+        this(category, total, count, average(total, count));
+    }
+
+    static BigDecimal average(BigDecimal total, long count) {
+        if (total == null || count == 0) {
+            return BigDecimal.ZERO;
+        }
+        return total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+}
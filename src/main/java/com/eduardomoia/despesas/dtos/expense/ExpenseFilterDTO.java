@@ -0,0 +1,25 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+// Filtros opcionais da listagem (?from=&to=&categories=&minAmount=&maxAmount=&groupId=)
+public record ExpenseFilterDTO(
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        Set<ExpenseCategory> categories,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        Long groupId
+) {
+
+    // Sem critérios além do grupo, a listagem usa as consultas projetadas existentes
+    public boolean hasCriteria() {
+        return from != null || to != null || (categories != null && !categories.isEmpty())
+                || minAmount != null || maxAmount != null;
+    }
+}
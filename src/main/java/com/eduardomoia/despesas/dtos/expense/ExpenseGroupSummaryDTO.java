@@ -0,0 +1,17 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.math.BigDecimal;
+
+public record ExpenseGroupSummaryDTO(
+        Long groupId,
+        String groupName,
+        BigDecimal total,
+        long count,
+        BigDecimal average
+) {
+
+    // Usado nas projeções JPQL (sum/count)
+    public ExpenseGroupSummaryDTO(Long groupId, String groupName, BigDecimal total, Long count) {
+        this(groupId, groupName, total, count, ExpenseCategorySummaryDTO.average(total, count));
+    }
+}
@@ -0,0 +1,22 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseImportFormat;
+import com.eduardomoia.despesas.entities.enums.ImportJobStatus;
+
+import java.time.Instant;
+
+public record ExpenseImportJobDTO(
+        Long id,
+        Long groupId,
+        String fileName,
+        ExpenseImportFormat format,
+        ImportJobStatus status,
+        long processedRows,
+        long importedRows,
+        long rejectedRows,
+        double rowsPerSecond,
+        String lastRejection,
+        String lastError,
+        Instant createdAt,
+        Instant finishedAt
+) {}
@@ -0,0 +1,17 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record ExpenseMonthlySummaryDTO(
+        YearMonth month,
+        BigDecimal total,
+        long count,
+        BigDecimal average
+) {
+
+    // Usado nas projeções JPQL (year/month, sum/count)
+    public ExpenseMonthlySummaryDTO(Integer year, Integer month, BigDecimal total, Long count) {
+        this(YearMonth.of(year, month), total, count, ExpenseCategorySummaryDTO.average(total, count));
+    }
+}
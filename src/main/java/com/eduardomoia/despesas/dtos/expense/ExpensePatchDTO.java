@@ -0,0 +1,24 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// PATCH: campos nulos ficam como estão
+public record ExpensePatchDTO(
+
+        @Pattern(regexp = ".*\\S.*", message = "não deve estar em branco")
+        @Size(max = 200)
+        String description,
+
+        @Digits(integer = 10, fraction = 2)
+        @DecimalMin(value = "0.01")
+        BigDecimal amount,
+
+        LocalDate date,
+
+        ExpenseCategory category
+
+) {}
@@ -0,0 +1,11 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ExpenseReportDTO(
+        ExpenseReportGrouping groupBy,
+        List<ExpenseReportRowDTO> rows,
+        BigDecimal total,
+        long count
+) {}
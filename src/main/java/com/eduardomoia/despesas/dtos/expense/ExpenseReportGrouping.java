@@ -0,0 +1,10 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+public enum ExpenseReportGrouping {
+    NONE,
+    CATEGORY,
+    GROUP,
+    YEAR,
+    MONTH,
+    DAY_OF_WEEK
+}
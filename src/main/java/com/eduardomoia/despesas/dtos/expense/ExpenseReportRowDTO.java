@@ -0,0 +1,12 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.math.BigDecimal;
+
+public record ExpenseReportRowDTO(
+        String key,
+        BigDecimal total,
+        long count,
+        BigDecimal average,
+        BigDecimal min,
+        BigDecimal max
+) {}
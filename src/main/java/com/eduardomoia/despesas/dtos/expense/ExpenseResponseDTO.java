@@ -14,5 +14,6 @@ public record ExpenseResponseDTO(
         Long groupId,
         String groupName,
         Long createdById,
-        String createdByName
+        String createdByName,
+        Long version
 ) {}
@@ -0,0 +1,17 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+// weight nulo conta como 1 (divisão igual)
+public record ExpenseShareDTO(
+
+        @NotNull
+        Long userId,
+
+        @Min(1)
+        @Max(1000)
+        Integer weight
+
+) {}
@@ -0,0 +1,10 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.math.BigDecimal;
+
+public record ExpenseShareResponseDTO(
+        Long userId,
+        String userName,
+        int weight,
+        BigDecimal amount
+) {}
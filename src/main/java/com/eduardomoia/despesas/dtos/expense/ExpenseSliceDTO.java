@@ -0,0 +1,10 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.util.List;
+
+public record ExpenseSliceDTO(
+        List<ExpenseResponseDTO> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {}
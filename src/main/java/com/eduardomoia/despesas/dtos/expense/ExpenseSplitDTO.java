@@ -0,0 +1,19 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ExpenseSplitDTO(
+
+        @NotNull
+        Long paidByUserId,
+
+        @NotEmpty
+        @Size(max = 1000)
+        List<@Valid @NotNull ExpenseShareDTO> shares
+
+) {}
@@ -0,0 +1,11 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ExpenseSplitResponseDTO(
+        Long expenseId,
+        BigDecimal amount,
+        Long paidByUserId,
+        List<ExpenseShareResponseDTO> shares
+) {}
@@ -0,0 +1,13 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ExpenseYearlyReportDTO(
+        int year,
+        BigDecimal total,
+        long count,
+        List<ExpenseMonthlySummaryDTO> months,
+        List<ExpenseGroupSummaryDTO> groups,
+        List<ExpenseCategorySummaryDTO> categories
+) {}
@@ -0,0 +1,36 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RecurringExpenseCreateDTO(
+
+        @NotBlank
+        @Size(max = 200)
+        String description,
+
+        @NotNull
+        @Digits(integer = 10, fraction = 2)
+        @DecimalMin(value = "0.01")
+        BigDecimal amount,
+
+        @NotNull
+        ExpenseCategory category,
+
+        @NotNull
+        @Min(1)
+        @Max(31)
+        Integer dayOfMonth,
+
+        @NotNull
+        LocalDate startDate,
+
+        LocalDate endDate,
+
+        @NotNull
+        Long groupId
+
+) {}
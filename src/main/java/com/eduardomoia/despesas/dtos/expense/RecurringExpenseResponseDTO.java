@@ -0,0 +1,19 @@
+package com.eduardomoia.despesas.dtos.expense;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RecurringExpenseResponseDTO(
+        Long id,
+        String description,
+        BigDecimal amount,
+        ExpenseCategory category,
+        int dayOfMonth,
+        LocalDate startDate,
+        LocalDate endDate,
+        LocalDate nextRunDate,
+        Long groupId,
+        String groupName
+) {}
@@ -0,0 +1,8 @@
+package com.eduardomoia.despesas.dtos.group;
+
+public enum BudgetStatus {
+    NO_BUDGET,
+    OK,
+    WARNING,
+    EXCEEDED
+}
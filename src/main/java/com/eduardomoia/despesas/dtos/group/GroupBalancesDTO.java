@@ -0,0 +1,10 @@
+package com.eduardomoia.despesas.dtos.group;
+
+import java.util.List;
+
+// Saldos líquidos por membro e as transferências sugeridas para zerá-los
+public record GroupBalancesDTO(
+        Long groupId,
+        List<GroupMemberDTO> members,
+        List<SettlementTransferDTO> transfers
+) {}
@@ -0,0 +1,14 @@
+package com.eduardomoia.despesas.dtos.group;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record GroupBudgetStatusDTO(
+        Long groupId,
+        YearMonth month,
+        BigDecimal monthlyBudget,
+        BigDecimal spent,
+        BigDecimal remaining,
+        BigDecimal percentUsed,
+        BudgetStatus status
+) {}
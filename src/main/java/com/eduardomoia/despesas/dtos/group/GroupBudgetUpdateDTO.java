@@ -0,0 +1,15 @@
+package com.eduardomoia.despesas.dtos.group;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+
+import java.math.BigDecimal;
+
+// monthlyBudget nulo remove o orçamento do grupo
+public record GroupBudgetUpdateDTO(
+
+        @Digits(integer = 10, fraction = 2)
+        @DecimalMin(value = "0.01")
+        BigDecimal monthlyBudget
+
+) {}
@@ -0,0 +1,12 @@
+package com.eduardomoia.despesas.dtos.group;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+public record GroupMemberAddDTO(
+
+        @NotBlank
+        @Email
+        String email
+
+) {}
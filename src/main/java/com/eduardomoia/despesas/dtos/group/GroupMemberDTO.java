@@ -0,0 +1,11 @@
+package com.eduardomoia.despesas.dtos.group;
+
+import java.math.BigDecimal;
+
+public record GroupMemberDTO(
+        Long userId,
+        String name,
+        String email,
+        BigDecimal balance,
+        boolean owner
+) {}
@@ -0,0 +1,16 @@
+package com.eduardomoia.despesas.dtos.group;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// PATCH: campos nulos ficam como estão
+public record GroupPatchDTO(
+
+        @Pattern(regexp = ".*\\S.*", message = "não deve estar em branco")
+        @Size(max = 100)
+        String name,
+
+        @Size(max = 255)
+        String description
+
+) {}
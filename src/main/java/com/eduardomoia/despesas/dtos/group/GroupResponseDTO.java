@@ -5,6 +5,7 @@ public record GroupResponseDTO(
         String name,
         String description,
         Long ownerId,
-        String ownerName
+        String ownerName,
+        Long version
 ) {}
 
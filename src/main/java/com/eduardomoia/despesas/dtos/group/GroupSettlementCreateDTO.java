@@ -0,0 +1,22 @@
+package com.eduardomoia.despesas.dtos.group;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+public record GroupSettlementCreateDTO(
+
+        @NotNull
+        Long fromUserId,
+
+        @NotNull
+        Long toUserId,
+
+        @NotNull
+        @Digits(integer = 10, fraction = 2)
+        @DecimalMin(value = "0.01")
+        BigDecimal amount
+
+) {}
@@ -0,0 +1,11 @@
+package com.eduardomoia.despesas.dtos.group;
+
+import java.math.BigDecimal;
+
+public record SettlementTransferDTO(
+        Long fromUserId,
+        String fromName,
+        Long toUserId,
+        String toName,
+        BigDecimal amount
+) {}
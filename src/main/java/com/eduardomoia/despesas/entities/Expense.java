@@ -4,12 +4,29 @@ import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "expenses")
+@Table(
+        name = "expenses",
+        indexes = {
+                // Listagem e paginação por cursor de um grupo: filtra por group_id já na ordem (date desc, id desc)
+                @Index(name = "idx_expenses_group_date_id", columnList = "group_id, date desc, id desc"),
+                @Index(name = "idx_expenses_created_by", columnList = "created_by_id"),
+                @Index(name = "idx_expenses_date", columnList = "date")
+        },
+        // Uma ocorrência por (recorrência, mês): o agendador pode rodar de novo sem duplicar despesas
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_expenses_recurrence",
+                columnNames = {"recurring_expense_id", "recurrence_period"}
+        )
+)
+// Updates só com as colunas alteradas: um PATCH de um campo não reescreve a linha inteira
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,10 +34,18 @@ import java.time.LocalDate;
 @Builder
 public class Expense {
 
+    // Sequence com pooled optimizer: IDENTITY obrigaria um insert imediato por entidade e desligaria o batching do JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
 
+    // Controle otimista: vira o ETag das respostas e é conferido no If-Match de PUT/PATCH
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @NotBlank
     @Size(max = 200)
     @Column(nullable = false, length = 200)
@@ -47,4 +72,17 @@ public class Expense {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id", nullable = false)
     private User createdBy;
+
+    // Quem pagou, quando a despesa está dividida entre membros (as partes ficam em expense_shares)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "paid_by_id")
+    private User paidBy;
+
+    // Preenchidos só nas despesas geradas por uma recorrência; sem FK para a despesa sobreviver à remoção do modelo
+    @Column(name = "recurring_expense_id")
+    private Long recurringExpenseId;
+
+    // Primeiro dia do mês da ocorrência
+    @Column(name = "recurrence_period")
+    private LocalDate recurrencePeriod;
 }
@@ -0,0 +1,75 @@
+package com.eduardomoia.despesas.entities;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseImportFormat;
+import com.eduardomoia.despesas.entities.enums.ImportJobStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "expense_import_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Group group;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ExpenseImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportJobStatus status;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    // Cópia do upload em disco; a importação lê dela em streaming e a remove ao concluir
+    @Column(name = "storage_path", nullable = false, length = 500)
+    private String storagePath;
+
+    // Linhas de dados já consumidas em chunks confirmados: é o ponto de retomada
+    @Column(name = "processed_rows", nullable = false)
+    private long processedRows;
+
+    @Column(name = "imported_rows", nullable = false)
+    private long importedRows;
+
+    @Column(name = "rejected_rows", nullable = false)
+    private long rejectedRows;
+
+    // Tempo gasto nos chunks confirmados, usado para calcular a vazão
+    @Column(name = "processing_millis", nullable = false)
+    private long processingMillis;
+
+    @Column(name = "last_rejection", length = 500)
+    private String lastRejection;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,46 @@
+package com.eduardomoia.despesas.entities;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "expense_monthly_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_expense_rollup_group_period_category",
+                columnNames = {"group_id", "period_start", "category"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    // Primeiro dia do mês agregado
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private ExpenseCategory category;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+}
@@ -0,0 +1,42 @@
+package com.eduardomoia.despesas.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(
+        name = "expense_shares",
+        uniqueConstraints = @UniqueConstraint(name = "uk_expense_shares_expense_user", columnNames = {"expense_id", "user_id"}),
+        indexes = @Index(name = "idx_expense_shares_user", columnList = "user_id")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseShare {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "expense_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Expense expense;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Peso na divisão (1 para divisão igual); o valor é recalculado quando o valor da despesa muda
+    @Column(nullable = false)
+    private int weight;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+}
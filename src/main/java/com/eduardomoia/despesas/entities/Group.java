@@ -4,12 +4,23 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
+// READ_WRITE: o dono é conferido em quase toda chamada de despesas e não pode ver um grupo já alterado ou removido
 @Entity
-@Table(name = "groups")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "group")
+@Table(
+        name = "groups",
+        indexes = @Index(name = "idx_groups_owner", columnList = "owner_id")
+)
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +32,12 @@ public class Group {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Controle otimista: vira o ETag das respostas e é conferido no If-Match de PUT/PATCH
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @NotBlank
     @Size(max = 100)
     @Column(nullable = false, length = 100)
@@ -30,6 +47,10 @@ public class Group {
     @Column(length = 255)
     private String description;
 
+    // Orçamento mensal opcional; null significa grupo sem limite de gastos
+    @Column(name = "monthly_budget", precision = 12, scale = 2)
+    private BigDecimal monthlyBudget;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
@@ -0,0 +1,69 @@
+package com.eduardomoia.despesas.entities;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "recurring_expenses",
+        indexes = {
+                // O agendador percorre as recorrências vencidas em ordem de id (paginação por keyset)
+                @Index(name = "idx_recurring_expenses_next_run", columnList = "next_run_date, id"),
+                @Index(name = "idx_recurring_expenses_group", columnList = "group_id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String description;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private ExpenseCategory category;
+
+    // Dia do mês da ocorrência; em meses mais curtos cai no último dia
+    @Column(name = "day_of_month", nullable = false)
+    private int dayOfMonth;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    // Data da próxima ocorrência a gerar; null quando a recorrência terminou
+    @Column(name = "next_run_date")
+    private LocalDate nextRunDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
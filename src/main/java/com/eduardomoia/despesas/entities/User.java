@@ -6,12 +6,16 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
+// READ_WRITE: nome, e-mail e senha mudam, e um login logo após a troca não pode ler a versão antiga
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,6 +42,7 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(
             name = "user_roles",
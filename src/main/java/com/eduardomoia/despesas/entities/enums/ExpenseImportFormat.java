@@ -0,0 +1,6 @@
+package com.eduardomoia.despesas.entities.enums;
+
+public enum ExpenseImportFormat {
+    CSV,
+    OFX
+}
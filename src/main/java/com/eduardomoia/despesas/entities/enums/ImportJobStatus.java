@@ -0,0 +1,8 @@
+package com.eduardomoia.despesas.entities.enums;
+
+public enum ImportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -2,6 +2,8 @@ package com.eduardomoia.despesas.exceptions;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -32,6 +34,29 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.FORBIDDEN, ex.getMessage(), request.getRequestURI());
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiError> handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest request) {
+        log.warn("Pré-condição falhou: {}", ex.getMessage());
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request.getRequestURI());
+    }
+
+    // Escrita concorrente detectada no commit, sem If-Match na requisição
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLocking(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        log.warn("Conflito de edição concorrente: {}", ex.getMessage());
+        return buildResponse(HttpStatus.CONFLICT,
+                "O recurso foi alterado por outra requisição. Recarregue e tente novamente.", request.getRequestURI());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleServiceUnavailable(ServiceUnavailableException ex, HttpServletRequest request) {
+        log.warn("Serviço indisponível: {}", ex.getMessage());
+        ResponseEntity<ApiError> response = buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response.getBody());
+    }
+
     private ResponseEntity<ApiError> buildResponse(HttpStatus status, String message, String path) {
         ApiError body = new ApiError(
                 Instant.now(),
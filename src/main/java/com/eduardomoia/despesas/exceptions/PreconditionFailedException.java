@@ -0,0 +1,9 @@
+package com.eduardomoia.despesas.exceptions;
+
+// If-Match que não confere com a versão atual do recurso (HTTP 412)
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ExpenseAnalyticsProjection(
+        Long id,
+        Long groupId,
+        BigDecimal amount,
+        LocalDate date,
+        ExpenseCategory category
+) {
+}
@@ -0,0 +1,21 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.entities.ExpenseImportJob;
+import com.eduardomoia.despesas.entities.enums.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface ExpenseImportJobRepository extends JpaRepository<ExpenseImportJob, Long> {
+
+    @Modifying
+    @Query("""
+            update ExpenseImportJob j
+            set j.status = com.eduardomoia.despesas.entities.enums.ImportJobStatus.FAILED, j.lastError = :error
+            where j.status in :statuses
+            """)
+    int failAll(@Param("statuses") Collection<ImportJobStatus> statuses, @Param("error") String error);
+}
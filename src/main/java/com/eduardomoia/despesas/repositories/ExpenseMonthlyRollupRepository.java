@@ -0,0 +1,110 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO;
+import com.eduardomoia.despesas.entities.ExpenseMonthlyRollup;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, Long> {
+
+    @Modifying
+    @Query("""
+            update ExpenseMonthlyRollup r
+            set r.total = r.total + :amount, r.expenseCount = r.expenseCount + :count
+            where r.group.id = :groupId and r.periodStart = :periodStart and r.category = :category
+            """)
+    int increment(@Param("groupId") Long groupId,
+                  @Param("periodStart") LocalDate periodStart,
+                  @Param("category") ExpenseCategory category,
+                  @Param("amount") BigDecimal amount,
+                  @Param("count") long count);
+
+    @Modifying
+    @Query("""
+            delete from ExpenseMonthlyRollup r
+            where r.group.id = :groupId and r.periodStart = :periodStart and r.category = :category
+              and r.expenseCount <= 0
+            """)
+    int deleteIfEmpty(@Param("groupId") Long groupId,
+                      @Param("periodStart") LocalDate periodStart,
+                      @Param("category") ExpenseCategory category);
+
+    @Query("""
+            select new com.eduardomoia.despesas.repositories.ExpenseRollupProjection(
+                r.group.id, r.periodStart, r.category, r.total, r.expenseCount)
+            from ExpenseMonthlyRollup r
+            """)
+    List<ExpenseRollupProjection> findAllProjections();
+
+    // === Leituras do resumo (O(meses x categorias)) ===
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO(
+                r.category, sum(r.total), sum(r.expenseCount))
+            from ExpenseMonthlyRollup r
+            where r.group.owner.email = :email and r.periodStart between :from and :to
+            group by r.category
+            order by r.category
+            """)
+    List<ExpenseCategorySummaryDTO> summarizeByCategoryForOwner(@Param("email") String email,
+                                                                @Param("from") LocalDate from,
+                                                                @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO(
+                r.category, sum(r.total), sum(r.expenseCount))
+            from ExpenseMonthlyRollup r
+            where r.group.id = :groupId and r.periodStart between :from and :to
+            group by r.category
+            order by r.category
+            """)
+    List<ExpenseCategorySummaryDTO> summarizeByCategoryForGroup(@Param("groupId") Long groupId,
+                                                                @Param("from") LocalDate from,
+                                                                @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO(
+                year(r.periodStart), month(r.periodStart), sum(r.total), sum(r.expenseCount))
+            from ExpenseMonthlyRollup r
+            where r.group.owner.email = :email and r.periodStart between :from and :to
+            group by year(r.periodStart), month(r.periodStart)
+            order by year(r.periodStart), month(r.periodStart)
+            """)
+    List<ExpenseMonthlySummaryDTO> summarizeByMonthForOwner(@Param("email") String email,
+                                                            @Param("from") LocalDate from,
+                                                            @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO(
+                year(r.periodStart), month(r.periodStart), sum(r.total), sum(r.expenseCount))
+            from ExpenseMonthlyRollup r
+            where r.group.id = :groupId and r.periodStart between :from and :to
+            group by year(r.periodStart), month(r.periodStart)
+            order by year(r.periodStart), month(r.periodStart)
+            """)
+    List<ExpenseMonthlySummaryDTO> summarizeByMonthForGroup(@Param("groupId") Long groupId,
+                                                            @Param("from") LocalDate from,
+                                                            @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO(
+                g.id, g.name, sum(r.total), sum(r.expenseCount))
+            from ExpenseMonthlyRollup r
+            join r.group g
+            where g.owner.email = :email and r.periodStart between :from and :to
+            group by g.id, g.name
+            order by g.id
+            """)
+    List<ExpenseGroupSummaryDTO> summarizeByGroupForOwner(@Param("email") String email,
+                                                          @Param("from") LocalDate from,
+                                                          @Param("to") LocalDate to);
+}
@@ -1,17 +1,261 @@
 package com.eduardomoia.despesas.repositories;
 
+import com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
 import com.eduardomoia.despesas.entities.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-    Page<Expense> findByGroup_Id(Long groupId, Pageable pageable);
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
 
-    Page<Expense> findByGroup_Owner_Email(String email, Pageable pageable);
+    // === Listagens já projetadas no DTO (group e createdBy vêm no mesmo select, sem N+1) ===
+
+    @Query(value = """
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where g.id = :groupId
+            """,
+            countQuery = "select count(e) from Expense e where e.group.id = :groupId")
+    Page<ExpenseResponseDTO> findResponsesByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+
+    @Query(value = """
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where g.owner.email = :email
+            """,
+            countQuery = "select count(e) from Expense e where e.group.owner.email = :email")
+    Page<ExpenseResponseDTO> findResponsesByOwnerEmail(@Param("email") String email, Pageable pageable);
+
+    // === Busca por id já autorizada: vazio quando a despesa não existe ou é de grupo de outro dono ===
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where e.id = :id and g.owner.email = :email
+            """)
+    Optional<ExpenseResponseDTO> findOwnedResponseById(@Param("id") Long id, @Param("email") String email);
+
+    // group e createdBy no mesmo select: a resposta de update e os eventos leem os dois
+    @Query("""
+            select e
+            from Expense e
+            join fetch e.group g
+            join fetch e.createdBy
+            where e.id = :id and g.owner.email = :email
+            """)
+    Optional<Expense> findOwnedById(@Param("id") Long id, @Param("email") String email);
 
     boolean existsByCreatedBy_Id(Long createdById);
 
+    boolean existsByPaidBy_Id(Long paidById);
+
+    boolean existsByGroup_IdAndPaidBy_Id(Long groupId, Long paidById);
+
     boolean existsByGroup_Id(Long groupId);
+
+    // Exportação: cursor JDBC com fetch size fixo, linhas consumidas uma a uma pelo chamador
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where g.owner.email = :email
+            order by e.date desc, e.id desc
+            """)
+    Stream<ExpenseResponseDTO> streamResponsesByOwnerEmail(@Param("email") String email);
+
+    // Carga do índice de busca textual na inicialização
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.eduardomoia.despesas.repositories.ExpenseSearchProjection(e.id, e.group.id, e.description)
+            from Expense e
+            """)
+    Stream<ExpenseSearchProjection> streamSearchEntries();
+
+    // Carga do snapshot analítico de um dono
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.eduardomoia.despesas.repositories.ExpenseAnalyticsProjection(
+                e.id, e.group.id, e.amount, e.date, e.category)
+            from Expense e
+            where e.group.owner.id = :ownerId
+            """)
+    Stream<ExpenseAnalyticsProjection> streamAnalyticsRowsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where e.id in :ids
+            """)
+    List<ExpenseResponseDTO> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // === Paginação por cursor (keyset sobre date desc, id desc, sem count) ===
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where g.owner.email = :email
+            order by e.date desc, e.id desc
+            """)
+    List<ExpenseResponseDTO> findFirstByOwnerEmail(@Param("email") String email, Limit limit);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where g.owner.email = :email
+              and (e.date < :date or (e.date = :date and e.id < :id))
+            order by e.date desc, e.id desc
+            """)
+    List<ExpenseResponseDTO> findNextByOwnerEmail(@Param("email") String email,
+                                                  @Param("date") LocalDate date,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where g.id = :groupId
+            order by e.date desc, e.id desc
+            """)
+    List<ExpenseResponseDTO> findFirstByGroupId(@Param("groupId") Long groupId, Limit limit);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO(
+                e.id, e.description, e.amount, e.date, e.category, g.id, g.name, u.id, u.name, e.version)
+            from Expense e
+            join e.group g
+            join e.createdBy u
+            where g.id = :groupId
+              and (e.date < :date or (e.date = :date and e.id < :id))
+            order by e.date desc, e.id desc
+            """)
+    List<ExpenseResponseDTO> findNextByGroupId(@Param("groupId") Long groupId,
+                                               @Param("date") LocalDate date,
+                                               @Param("id") Long id,
+                                               Limit limit);
+
+    // === Agregações (projeções, sem carregar entidades) ===
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO(e.category, sum(e.amount), count(e))
+            from Expense e
+            where e.group.owner.email = :email and e.date between :from and :to
+            group by e.category
+            order by e.category
+            """)
+    List<ExpenseCategorySummaryDTO> summarizeByCategoryForOwner(@Param("email") String email,
+                                                                @Param("from") LocalDate from,
+                                                                @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO(e.category, sum(e.amount), count(e))
+            from Expense e
+            where e.group.id = :groupId and e.date between :from and :to
+            group by e.category
+            order by e.category
+            """)
+    List<ExpenseCategorySummaryDTO> summarizeByCategoryForGroup(@Param("groupId") Long groupId,
+                                                                @Param("from") LocalDate from,
+                                                                @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO(
+                year(e.date), month(e.date), sum(e.amount), count(e))
+            from Expense e
+            where e.group.owner.email = :email and e.date between :from and :to
+            group by year(e.date), month(e.date)
+            order by year(e.date), month(e.date)
+            """)
+    List<ExpenseMonthlySummaryDTO> summarizeByMonthForOwner(@Param("email") String email,
+                                                            @Param("from") LocalDate from,
+                                                            @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO(
+                year(e.date), month(e.date), sum(e.amount), count(e))
+            from Expense e
+            where e.group.id = :groupId and e.date between :from and :to
+            group by year(e.date), month(e.date)
+            order by year(e.date), month(e.date)
+            """)
+    List<ExpenseMonthlySummaryDTO> summarizeByMonthForGroup(@Param("groupId") Long groupId,
+                                                            @Param("from") LocalDate from,
+                                                            @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO(g.id, g.name, sum(e.amount), count(e))
+            from Expense e
+            join e.group g
+            where g.owner.email = :email and e.date between :from and :to
+            group by g.id, g.name
+            order by g.id
+            """)
+    List<ExpenseGroupSummaryDTO> summarizeByGroupForOwner(@Param("email") String email,
+                                                          @Param("from") LocalDate from,
+                                                          @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.eduardomoia.despesas.repositories.ExpenseRollupProjection(
+                e.group.id, year(e.date), month(e.date), e.category, sum(e.amount), count(e))
+            from Expense e
+            group by e.group.id, year(e.date), month(e.date), e.category
+            """)
+    List<ExpenseRollupProjection> aggregateMonthlyRollups();
+
+    @Query("""
+            select new com.eduardomoia.despesas.repositories.RecurrenceProjection(e.recurringExpenseId, e.recurrencePeriod)
+            from Expense e
+            where e.recurringExpenseId in :recurringExpenseIds and e.recurrencePeriod >= :from
+            """)
+    List<RecurrenceProjection> findRecurrences(@Param("recurringExpenseIds") Collection<Long> recurringExpenseIds,
+                                               @Param("from") LocalDate from);
 }
@@ -0,0 +1,20 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ExpenseRollupProjection(
+        Long groupId,
+        LocalDate periodStart,
+        ExpenseCategory category,
+        BigDecimal total,
+        long expenseCount
+) {
+
+    public ExpenseRollupProjection(Long groupId, Integer year, Integer month, ExpenseCategory category,
+                                   BigDecimal total, Long expenseCount) {
+        this(groupId, LocalDate.of(year, month, 1), category, total, expenseCount);
+    }
+}
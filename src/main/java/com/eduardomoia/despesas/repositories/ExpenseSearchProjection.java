@@ -0,0 +1,8 @@
+package com.eduardomoia.despesas.repositories;
+
+public record ExpenseSearchProjection(
+        Long id,
+        Long groupId,
+        String description
+) {
+}
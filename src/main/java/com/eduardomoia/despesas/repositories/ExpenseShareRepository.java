@@ -0,0 +1,34 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseShareResponseDTO;
+import com.eduardomoia.despesas.entities.ExpenseShare;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ExpenseShareRepository extends JpaRepository<ExpenseShare, Long> {
+
+    @Query("select s from ExpenseShare s where s.expense.id = :expenseId order by s.user.id")
+    List<ExpenseShare> findByExpenseId(@Param("expenseId") Long expenseId);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.expense.ExpenseShareResponseDTO(u.id, u.name, s.weight, s.amount)
+            from ExpenseShare s
+            join s.user u
+            where s.expense.id = :expenseId
+            order by u.id
+            """)
+    List<ExpenseShareResponseDTO> findResponsesByExpenseId(@Param("expenseId") Long expenseId);
+
+    @Modifying
+    @Query("delete from ExpenseShare s where s.expense.id = :expenseId")
+    int deleteByExpenseId(@Param("expenseId") Long expenseId);
+
+    @Query("select count(s) > 0 from ExpenseShare s where s.expense.group.id = :groupId and s.user.id = :userId")
+    boolean existsInGroup(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    boolean existsByUser_Id(Long userId);
+}
@@ -0,0 +1,61 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseFilterDTO;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    /**
+     * Despesas dos grupos do usuário que atendem ao filtro. Na consulta da página, group e createdBy
+     * vêm por fetch join (sem N+1 no mapeamento); na consulta de count, apenas o join necessário ao filtro.
+     */
+    public static Specification<Expense> matching(String ownerEmail, ExpenseFilterDTO filter) {
+        return (root, query, cb) -> {
+            Join<Expense, Group> group = joinGroup(root, query.getResultType() != Long.class);
+            List<Predicate> predicates = new ArrayList<>();
+
+            predicates.add(cb.equal(group.get("owner").get("email"), ownerEmail));
+            if (filter.groupId() != null) {
+                predicates.add(cb.equal(group.get("id"), filter.groupId()));
+            }
+            if (filter.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.from()));
+            }
+            if (filter.to() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.to()));
+            }
+            if (filter.categories() != null && !filter.categories().isEmpty()) {
+                predicates.add(root.get("category").in(filter.categories()));
+            }
+            if (filter.minAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filter.minAmount()));
+            }
+            if (filter.maxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filter.maxAmount()));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Join<Expense, Group> joinGroup(Root<Expense> root, boolean fetch) {
+        if (!fetch) {
+            return root.join("group");
+        }
+        root.fetch("createdBy", JoinType.INNER);
+        return (Join<Expense, Group>) root.<Expense, Group>fetch("group", JoinType.INNER);
+    }
+}
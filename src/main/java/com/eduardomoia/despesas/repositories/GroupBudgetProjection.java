@@ -0,0 +1,8 @@
+package com.eduardomoia.despesas.repositories;
+
+import java.math.BigDecimal;
+
+public record GroupBudgetProjection(
+        Long groupId,
+        BigDecimal monthlyBudget
+) {}
@@ -0,0 +1,55 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.dtos.group.GroupMemberDTO;
+import com.eduardomoia.despesas.entities.GroupMember;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface GroupMemberRepository extends JpaRepository<GroupMember, Long> {
+
+    boolean existsByGroup_IdAndUser_Id(Long groupId, Long userId);
+
+    Optional<GroupMember> findByGroup_IdAndUser_Id(Long groupId, Long userId);
+
+    @Query("select m.user.id from GroupMember m where m.group.id = :groupId and m.user.id in :userIds")
+    List<Long> findMemberIds(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
+
+    // Membros e saldos num único select, para o cálculo de acerto não depender do histórico de despesas
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.group.GroupMemberDTO(
+                u.id, u.name, u.email, m.balance, case when u.id = g.owner.id then true else false end)
+            from GroupMember m
+            join m.user u
+            join m.group g
+            where g.id = :groupId
+            order by u.id
+            """)
+    List<GroupMemberDTO> findMembers(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("""
+            update GroupMember m set m.balance = m.balance + :delta
+            where m.group.id = :groupId and m.user.id = :userId
+            """)
+    int addToBalance(@Param("groupId") Long groupId, @Param("userId") Long userId, @Param("delta") BigDecimal delta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_members"))
+    @Query(value = """
+            insert into group_members (group_id, user_id, balance, joined_at)
+            select g.id, g.owner_id, 0, current_timestamp
+            from groups g
+            where not exists (select 1 from group_members m where m.group_id = g.id and m.user_id = g.owner_id)
+            """, nativeQuery = true)
+    int insertMissingOwners();
+}
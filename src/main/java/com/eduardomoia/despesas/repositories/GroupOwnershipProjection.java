@@ -0,0 +1,6 @@
+package com.eduardomoia.despesas.repositories;
+
+public record GroupOwnershipProjection(
+        Long groupId,
+        Long ownerId
+) {}
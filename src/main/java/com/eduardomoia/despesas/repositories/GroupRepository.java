@@ -1,15 +1,78 @@
 package com.eduardomoia.despesas.repositories;
 
+import com.eduardomoia.despesas.dtos.group.GroupResponseDTO;
 import com.eduardomoia.despesas.entities.Group;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
     boolean existsByName(String name);
 
-    Page<Group> findByOwner_Email(String email, Pageable pageable);
+    // Projeção direta no DTO: o owner vem no mesmo select, sem um select extra por grupo
+    @Query(value = """
+            select new com.eduardomoia.despesas.dtos.group.GroupResponseDTO(g.id, g.name, g.description, o.id, o.name, g.version)
+            from Group g
+            join g.owner o
+            where o.email = :email
+            """,
+            countQuery = "select count(g) from Group g where g.owner.email = :email")
+    Page<GroupResponseDTO> findResponsesByOwnerEmail(@Param("email") String email, Pageable pageable);
+
+    @Query("""
+            select new com.eduardomoia.despesas.dtos.group.GroupResponseDTO(g.id, g.name, g.description, o.id, o.name, g.version)
+            from Group g
+            join g.owner o
+            where g.id = :id
+            """)
+    Optional<GroupResponseDTO> findResponseById(@Param("id") Long id);
+
+    // === Busca por id já autorizada: vazio quando o grupo não existe ou é de outro dono ===
+
+    @Query("""
+            select g
+            from Group g
+            join fetch g.owner o
+            where g.id = :id and o.email = :email
+            """)
+    Optional<Group> findOwnedById(@Param("id") Long id, @Param("email") String email);
+
+    boolean existsByIdAndOwner_Email(Long id, String email);
+
+    @Query("""
+            select new com.eduardomoia.despesas.repositories.GroupBudgetProjection(g.id, g.monthlyBudget)
+            from Group g
+            where g.id = :id and g.owner.email = :email
+            """)
+    Optional<GroupBudgetProjection> findOwnedBudgetById(@Param("id") Long id, @Param("email") String email);
 
     boolean existsByOwner_Id(Long ownerId);
+
+    @Query("select g.id from Group g where g.owner.email = :email")
+    List<Long> findIdsByOwnerEmail(@Param("email") String email);
+
+    @Query("""
+            select new com.eduardomoia.despesas.repositories.GroupBudgetProjection(g.id, g.monthlyBudget)
+            from Group g
+            where g.owner.email = :email
+            order by g.id
+            """)
+    List<GroupBudgetProjection> findBudgetsByOwnerEmail(@Param("email") String email);
+
+    @Query("""
+            select new com.eduardomoia.despesas.repositories.GroupBudgetProjection(g.id, g.monthlyBudget)
+            from Group g
+            where g.monthlyBudget is not null
+            """)
+    List<GroupBudgetProjection> findAllBudgets();
+
+    // Carga e verificação do índice de donos; owner.id vem da própria FK, sem join
+    @Query("select new com.eduardomoia.despesas.repositories.GroupOwnershipProjection(g.id, g.owner.id) from Group g")
+    List<GroupOwnershipProjection> findAllOwnerships();
 }
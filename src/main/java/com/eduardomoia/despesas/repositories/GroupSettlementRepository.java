@@ -0,0 +1,9 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.entities.GroupSettlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface GroupSettlementRepository extends JpaRepository<GroupSettlement, Long> {
+
+    boolean existsByFromUser_IdOrToUser_Id(Long fromUserId, Long toUserId);
+}
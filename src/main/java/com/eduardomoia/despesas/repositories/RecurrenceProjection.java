@@ -0,0 +1,8 @@
+package com.eduardomoia.despesas.repositories;
+
+import java.time.LocalDate;
+
+public record RecurrenceProjection(
+        Long recurringExpenseId,
+        LocalDate recurrencePeriod
+) {}
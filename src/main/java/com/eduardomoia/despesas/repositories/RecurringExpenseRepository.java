@@ -0,0 +1,44 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.dtos.expense.RecurringExpenseResponseDTO;
+import com.eduardomoia.despesas.entities.RecurringExpense;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    @Query(value = """
+            select new com.eduardomoia.despesas.dtos.expense.RecurringExpenseResponseDTO(
+                r.id, r.description, r.amount, r.category, r.dayOfMonth, r.startDate, r.endDate,
+                r.nextRunDate, g.id, g.name)
+            from RecurringExpense r
+            join r.group g
+            where g.owner.email = :email
+            """,
+            countQuery = "select count(r) from RecurringExpense r where r.group.owner.email = :email")
+    Page<RecurringExpenseResponseDTO> findResponsesByOwnerEmail(@Param("email") String email, Pageable pageable);
+
+    // Keyset por id: cada lote começa depois do último processado, sem offset crescente
+    @Query("""
+            select r from RecurringExpense r
+            join fetch r.group
+            where r.nextRunDate <= :today and r.id > :afterId
+            order by r.id
+            """)
+    List<RecurringExpense> findDue(@Param("today") LocalDate today, @Param("afterId") long afterId, Limit limit);
+
+    // Mesmo recorte do findDue, só com os ids: usado para pular um lote que falhou
+    @Query("""
+            select r.id from RecurringExpense r
+            where r.nextRunDate <= :today and r.id > :afterId
+            order by r.id
+            """)
+    List<Long> findDueIds(@Param("today") LocalDate today, @Param("afterId") long afterId, Limit limit);
+}
@@ -0,0 +1,50 @@
+package com.eduardomoia.despesas.security;
+
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+@Getter
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String name;
+    private final String email;
+    private String password;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id,
+                             String name,
+                             String email,
+                             String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.password = password;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    // Monta o principal apenas com as claims assinadas, sem consultar o banco
+    public static AuthenticatedUser fromToken(VerifiedToken token) {
+        List<GrantedAuthority> authorities = token.roles().stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return new AuthenticatedUser(token.userId(), null, token.subject(), null, authorities);
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
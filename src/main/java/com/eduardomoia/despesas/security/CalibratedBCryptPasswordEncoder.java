@@ -0,0 +1,77 @@
+package com.eduardomoia.despesas.security;
+
+import com.eduardomoia.despesas.config.PasswordHashingProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt com custo escolhido na inicialização a partir de uma latência alvo.
+ * Qualquer hash com custo diferente do calibrado (maior ou menor) é marcado para
+ * ser refeito no próximo login bem-sucedido.
+ */
+@Slf4j
+@Getter
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+    private static final int SAMPLES = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public static CalibratedBCryptPasswordEncoder calibrate(PasswordHashingProperties properties) {
+        int minStrength = Math.min(properties.minStrength(), properties.maxStrength());
+        int maxStrength = Math.max(properties.minStrength(), properties.maxStrength());
+
+        if (!properties.calibrate()) {
+            return new CalibratedBCryptPasswordEncoder(minStrength);
+        }
+
+        // Cada incremento de custo dobra o tempo, então basta medir o custo mínimo e extrapolar
+        long baseNanos = measure(minStrength);
+        long targetNanos = properties.targetLatency().toNanos();
+
+        int strength = minStrength;
+        long estimated = baseNanos;
+        while (strength < maxStrength && estimated * 2 - targetNanos < targetNanos - estimated) {
+            estimated *= 2;
+            strength++;
+        }
+
+        log.info("Custo do BCrypt calibrado: strength={} (~{} ms por hash, alvo {} ms)",
+                strength, Duration.ofNanos(estimated).toMillis(), properties.targetLatency().toMillis());
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD); // aquecimento
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
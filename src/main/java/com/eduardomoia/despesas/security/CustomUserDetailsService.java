@@ -3,32 +3,56 @@ package com.eduardomoia.despesas.security;
 import com.eduardomoia.despesas.entities.User;
 import com.eduardomoia.despesas.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findWithRolesByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
 
         List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority(role.name()))
                 .toList();
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getName(),
                 user.getEmail(),
                 user.getPassword(),
                 authorities
         );
     }
+
+    // Chamado pelo DaoAuthenticationProvider após um login válido cujo hash usa outro custo
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        log.info("Hash de senha atualizado para o custo atual user={}", user.getUsername());
+
+        if (user instanceof AuthenticatedUser authenticated) {
+            return new AuthenticatedUser(
+                    authenticated.getId(),
+                    authenticated.getName(),
+                    authenticated.getEmail(),
+                    newPassword,
+                    authenticated.getAuthorities()
+            );
+        }
+        return loadUserByUsername(user.getUsername());
+    }
 }
@@ -1,5 +1,6 @@
 package com.eduardomoia.despesas.security;
 
+import com.eduardomoia.despesas.config.JwtProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +21,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final JwtProperties jwtProperties;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,18 +39,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
 
-        String username;
+        VerifiedToken token;
         try {
-            username = jwtService.extractUsername(jwt);
+            token = jwtService.verify(jwt);
         } catch (Exception e) {
             filterChain.doFilter(request, response);
             return;
         }
 
+        String username = token.subject();
+
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = resolvePrincipal(token);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null && jwtService.isTokenValid(token, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -65,4 +70,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolvePrincipal(VerifiedToken token) {
+        if (jwtProperties.statelessPrincipal() && !principalCache.isStale(token)) {
+            return AuthenticatedUser.fromToken(token);
+        }
+
+        try {
+            return principalCache.get(token.subject(), userDetailsService::loadUserByUsername);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
 }
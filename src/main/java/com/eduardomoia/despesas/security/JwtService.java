@@ -1,51 +1,89 @@
 package com.eduardomoia.despesas.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.eduardomoia.despesas.config.JwtProperties;
-import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+
     private final JwtProperties jwtProperties;
+    private final VerifiedTokenCache tokenCache;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
 
-    private Algorithm getAlgorithm() {
-        return Algorithm.HMAC256(jwtProperties.secret());
+    public JwtService(JwtProperties jwtProperties, VerifiedTokenCache tokenCache) {
+        this.jwtProperties = jwtProperties;
+        this.tokenCache = tokenCache;
+        this.algorithm = Algorithm.HMAC256(jwtProperties.secret());
+        this.verifier = JWT.require(algorithm).build();
     }
 
     public String generateToken(UserDetails userDetails) {
         Instant now = Instant.now();
         Instant expiresAt = now.plusMillis(jwtProperties.expirationMs());
 
-        return JWT.create()
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        JWTCreator.Builder builder = JWT.create()
                 .withSubject(userDetails.getUsername())
+                .withClaim(ROLES_CLAIM, roles)
                 .withIssuedAt(Date.from(now))
-                .withExpiresAt(Date.from(expiresAt))
-                .sign(getAlgorithm());
+                .withExpiresAt(Date.from(expiresAt));
+
+        if (userDetails instanceof AuthenticatedUser user && user.getId() != null) {
+            builder.withClaim(USER_ID_CLAIM, user.getId());
+        }
+
+        return builder.sign(algorithm);
+    }
+
+    public VerifiedToken verify(String token) throws JWTVerificationException {
+        return tokenCache.get(token, this::decode);
     }
 
     public String extractUsername(String token) throws JWTVerificationException {
-        JWTVerifier verifier = JWT.require(getAlgorithm()).build();
-        DecodedJWT decodedJWT = verifier.verify(token);
-        return decodedJWT.getSubject();
+        return verify(token).subject();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            String username = extractUsername(token);
-            return username.equals(userDetails.getUsername());
+            return isTokenValid(verify(token), userDetails);
         } catch (JWTVerificationException ex) {
             return false;
         }
     }
+
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.subject() != null
+                && token.subject().equals(userDetails.getUsername())
+                && !token.isExpired(Instant.now());
+    }
+
+    private VerifiedToken decode(String token) {
+        DecodedJWT decodedJWT = verifier.verify(token);
+        return new VerifiedToken(
+                decodedJWT.getSubject(),
+                decodedJWT.getClaim(USER_ID_CLAIM).asLong(),
+                decodedJWT.getClaim(ROLES_CLAIM).asList(String.class),
+                decodedJWT.getIssuedAtAsInstant(),
+                decodedJWT.getExpiresAtAsInstant()
+        );
+    }
 }
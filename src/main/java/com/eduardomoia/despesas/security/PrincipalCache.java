@@ -0,0 +1,97 @@
+package com.eduardomoia.despesas.security;
+
+import com.eduardomoia.despesas.config.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Guarda principals resolvidos pelo filtro JWT por um TTL curto e registra quando os dados
+ * de um usuário mudaram, para que tokens emitidos antes disso deixem de ser usados como fonte de verdade.
+ */
+@Component
+public class PrincipalCache {
+
+    static final String CACHE_NAME = "security.principals";
+
+    private final Cache<String, UserDetails> principals;
+    private final Cache<Long, Instant> invalidations;
+
+    public PrincipalCache(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        Duration ttl = jwtProperties.principalCacheTtl();
+
+        this.principals = ttl.isZero() || ttl.isNegative()
+                ? null
+                : Caffeine.newBuilder()
+                        .maximumSize(jwtProperties.cacheMaximumSize())
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build();
+
+        // Uma invalidação só precisa viver enquanto algum token anterior a ela puder ser válido
+        this.invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtProperties.expirationMs()))
+                .build();
+
+        if (principals != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+        }
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        if (principals == null) {
+            return loader.apply(email);
+        }
+        return principals.get(email, key -> {
+            UserDetails loaded = loader.apply(key);
+            if (loaded instanceof CredentialsContainer credentials) {
+                credentials.eraseCredentials();
+            }
+            return loaded;
+        });
+    }
+
+    public boolean isStale(VerifiedToken token) {
+        if (!token.carriesPrincipal()) {
+            return true;
+        }
+        Instant invalidatedAt = invalidations.getIfPresent(token.userId());
+        return invalidatedAt != null
+                && (token.issuedAt() == null || !token.issuedAt().isAfter(invalidatedAt));
+    }
+
+    public void invalidate(Long userId, String... emails) {
+        evict(userId, emails);
+
+        // Evita que uma requisição concorrente recoloque no cache o estado anterior ao commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId, emails);
+                }
+            });
+        }
+    }
+
+    private void evict(Long userId, String... emails) {
+        if (userId != null) {
+            invalidations.put(userId, Instant.now());
+        }
+        if (principals != null) {
+            principals.invalidateAll(Arrays.stream(emails).filter(Objects::nonNull).toList());
+        }
+    }
+}
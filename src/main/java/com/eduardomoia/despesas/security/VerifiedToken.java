@@ -0,0 +1,21 @@
+package com.eduardomoia.despesas.security;
+
+import java.time.Instant;
+import java.util.List;
+
+public record VerifiedToken(
+        String subject,
+        Long userId,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public boolean carriesPrincipal() {
+        return userId != null && roles != null;
+    }
+}
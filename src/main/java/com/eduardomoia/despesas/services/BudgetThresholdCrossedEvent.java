@@ -0,0 +1,13 @@
+package com.eduardomoia.despesas.services;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+// Publicado uma vez por travessia: o gasto do mês passou de abaixo para acima do limite
+public record BudgetThresholdCrossedEvent(
+        Long groupId,
+        YearMonth month,
+        int thresholdPercent,
+        BigDecimal spent,
+        BigDecimal monthlyBudget
+) {}
@@ -0,0 +1,150 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV com cabeçalho contendo ao menos description, amount e date (category é opcional).
+ * Aceita o próprio formato da exportação, separador ';' e valores/datas no padrão brasileiro.
+ */
+class CsvExpenseImportReader implements ExpenseImportReader {
+
+    private static final DateTimeFormatter BR_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final BufferedReader reader;
+    private final Long groupId;
+    private final char delimiter;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long rowNumber;
+
+    CsvExpenseImportReader(BufferedReader reader, Long groupId) throws IOException {
+        this.reader = reader;
+        this.groupId = groupId;
+
+        String header = reader.readLine();
+        if (header == null) {
+            throw new BusinessException("Arquivo CSV vazio.");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        this.delimiter = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("description", "amount", "date")) {
+            if (!columns.containsKey(required)) {
+                throw new BusinessException("Coluna obrigatória ausente no CSV: " + required);
+            }
+        }
+    }
+
+    @Override
+    public ExpenseImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            rowNumber++;
+        } while (line.isBlank());
+
+        List<String> values = split(line);
+        try {
+            return ExpenseImportRow.parsed(rowNumber, new ExpenseCreateDTO(
+                    value(values, "description"),
+                    parseAmount(value(values, "amount")),
+                    parseDate(value(values, "date")),
+                    parseCategory(value(values, "category")),
+                    groupId
+            ));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return ExpenseImportRow.rejected(rowNumber, "Valor ou data inválidos: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ExpenseImportRow.rejected(rowNumber, "Categoria inválida: " + value(values, "category"));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String value(List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Extratos trazem débitos negativos; a despesa guarda sempre o valor absoluto
+    private BigDecimal parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.replace(" ", "");
+        if (normalized.indexOf(',') >= 0) {
+            normalized = normalized.replace(".", "").replace(',', '.');
+        }
+        return new BigDecimal(normalized).abs();
+    }
+
+    private LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.indexOf('/') >= 0 ? LocalDate.parse(value, BR_DATE) : LocalDate.parse(value);
+    }
+
+    private ExpenseCategory parseCategory(String value) {
+        return value == null ? ExpenseCategory.OTHER : ExpenseCategory.valueOf(value.toUpperCase(Locale.ROOT));
+    }
+
+    // Campos entre aspas podem conter o separador; "" representa uma aspa literal
+    private List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
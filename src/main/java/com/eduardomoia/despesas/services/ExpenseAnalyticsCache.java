@@ -0,0 +1,62 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.ExpenseAnalyticsProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Function;
+
+/**
+ * Snapshots colunares por dono, carregados na primeira consulta e limitados pelo peso estimado em bytes.
+ * Mutações confirmadas são aplicadas no snapshot já carregado em vez de descartá-lo.
+ */
+@Component
+public class ExpenseAnalyticsCache {
+
+    static final String CACHE_NAME = "despesas.analytics.snapshots";
+
+    private final Cache<Long, ExpenseAnalyticsSnapshot> cache;
+
+    public ExpenseAnalyticsCache(ExpenseAnalyticsProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maxMemory().toBytes())
+                .weigher((Long ownerId, ExpenseAnalyticsSnapshot snapshot) -> snapshot.estimatedBytes())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // A carga roda com a chave travada: um evento do mesmo dono espera e é aplicado sobre o snapshot recém-carregado
+    ExpenseAnalyticsSnapshot get(long ownerId, Function<Long, ExpenseAnalyticsSnapshot> loader) {
+        return cache.get(ownerId, loader);
+    }
+
+    // O compute também recalcula o peso, então um snapshot que cresceu pode provocar despejo
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        cache.asMap().computeIfPresent(event.ownerId(), (ownerId, snapshot) -> {
+            if (event.type() == ExpenseChangedEvent.Type.DELETED) {
+                snapshot.remove(event.expenseId());
+            } else {
+                snapshot.upsert(event.expenseId(), event.groupId(), event.amount(), event.date(), event.category());
+            }
+            return snapshot;
+        });
+    }
+
+    public void invalidate(long ownerId) {
+        cache.invalidate(ownerId);
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+}
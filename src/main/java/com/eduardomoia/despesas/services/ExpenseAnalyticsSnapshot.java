@@ -0,0 +1,272 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportGrouping;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Despesas de um dono em colunas de primitivos (centavos, epoch-day, ordinal da categoria, grupo),
+ * sem entidades nem BigDecimal: uma agregação é um laço sobre arrays.
+ */
+final class ExpenseAnalyticsSnapshot {
+
+    // id + centavos + grupo (long) + epoch-day (int) + categoria (byte)
+    private static final int BYTES_PER_ROW = 8 + 8 + 8 + 4 + 1;
+    // id (long) + linha (int) por posição do índice
+    private static final int BYTES_PER_SLOT = 8 + 4;
+    private static final int OVERHEAD_BYTES = 256;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] ids;
+    private long[] amountCents;
+    private long[] groupIds;
+    private int[] epochDays;
+    private byte[] categories;
+    private int size;
+
+    // Índice id -> linha com endereçamento aberto (sondagem linear); slotRows guarda linha + 1, 0 = vazio
+    private long[] slotIds;
+    private int[] slotRows;
+
+    ExpenseAnalyticsSnapshot(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        ids = new long[capacity];
+        amountCents = new long[capacity];
+        groupIds = new long[capacity];
+        epochDays = new int[capacity];
+        categories = new byte[capacity];
+        resizeIndex(capacity);
+    }
+
+    // Carga inicial: ids vêm únicos do banco, então dispensa a procura pela linha existente
+    void append(long id, long groupId, BigDecimal amount, LocalDate date, ExpenseCategory category) {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(size + 1);
+            int row = size++;
+            ids[row] = id;
+            putIndex(id, row);
+            amountCents[row] = toCents(amount);
+            groupIds[row] = groupId;
+            epochDays[row] = (int) date.toEpochDay();
+            categories[row] = (byte) category.ordinal();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Inclui ou substitui a linha da despesa; aplicar o mesmo evento duas vezes não muda o resultado
+    void upsert(long id, long groupId, BigDecimal amount, LocalDate date, ExpenseCategory category) {
+        lock.writeLock().lock();
+        try {
+            int row = indexOf(id);
+            if (row < 0) {
+                ensureCapacity(size + 1);
+                row = size++;
+                ids[row] = id;
+                putIndex(id, row);
+            }
+            amountCents[row] = toCents(amount);
+            groupIds[row] = groupId;
+            epochDays[row] = (int) date.toEpochDay();
+            categories[row] = (byte) category.ordinal();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A última linha ocupa o lugar da removida; a ordem das linhas não importa para as agregações
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = indexOf(id);
+            if (row < 0) {
+                return;
+            }
+            removeIndex(id);
+            int last = --size;
+            if (row == last) {
+                return;
+            }
+            ids[row] = ids[last];
+            amountCents[row] = amountCents[last];
+            groupIds[row] = groupIds[last];
+            epochDays[row] = epochDays[last];
+            categories[row] = categories[last];
+            putIndex(ids[row], row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) ids.length * BYTES_PER_ROW + (long) slotIds.length * BYTES_PER_SLOT + OVERHEAD_BYTES;
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Totais por chave do agrupamento, em ordem crescente de chave
+    Map<Long, Accumulator> aggregate(Filter filter, ExpenseReportGrouping groupBy) {
+        Map<Long, Accumulator> result = new TreeMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                if (!filter.matches(amountCents[row], groupIds[row], epochDays[row], categories[row])) {
+                    continue;
+                }
+                long key = switch (groupBy) {
+                    case NONE -> 0L;
+                    case CATEGORY -> categories[row];
+                    case GROUP -> groupIds[row];
+                    case YEAR -> LocalDate.ofEpochDay(epochDays[row]).getYear();
+                    case MONTH -> {
+                        LocalDate date = LocalDate.ofEpochDay(epochDays[row]);
+                        yield date.getYear() * 12L + date.getMonthValue() - 1;
+                    }
+                    // 1970-01-01 foi uma quinta-feira: segunda-feira = 0
+                    case DAY_OF_WEEK -> Math.floorMod(epochDays[row] + 3, 7);
+                };
+                result.computeIfAbsent(key, k -> new Accumulator()).add(amountCents[row]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private int indexOf(long id) {
+        return slotRows[slotOf(id)] - 1;
+    }
+
+    // Posição do id no índice, ou a posição vazia onde ele entraria
+    private int slotOf(long id) {
+        int mask = slotIds.length - 1;
+        int slot = home(id, mask);
+        while (slotRows[slot] != 0 && slotIds[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void putIndex(long id, int row) {
+        int slot = slotOf(id);
+        slotIds[slot] = id;
+        slotRows[slot] = row + 1;
+    }
+
+    // Remoção por deslocamento para trás: sem lápides, a sondagem continua parando na primeira posição vazia
+    private void removeIndex(long id) {
+        int mask = slotIds.length - 1;
+        int gap = slotOf(id);
+        if (slotRows[gap] == 0) {
+            return;
+        }
+        for (int slot = (gap + 1) & mask; slotRows[slot] != 0; slot = (slot + 1) & mask) {
+            // A entrada só pode ocupar o buraco se ele estiver entre a posição de origem dela e a atual
+            if (((slot - home(slotIds[slot], mask)) & mask) >= ((slot - gap) & mask)) {
+                slotIds[gap] = slotIds[slot];
+                slotRows[gap] = slotRows[slot];
+                gap = slot;
+            }
+        }
+        slotRows[gap] = 0;
+    }
+
+    // Pelo menos o dobro da capacidade das colunas, em potência de dois: a ocupação fica abaixo de 50%
+    private void resizeIndex(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(capacity, 8) * 2 - 1) << 1;
+        slotIds = new long[slots];
+        slotRows = new int[slots];
+        for (int row = 0; row < size; row++) {
+            putIndex(ids[row], row);
+        }
+    }
+
+    private static int home(long id, int mask) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        groupIds = Arrays.copyOf(groupIds, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        resizeIndex(capacity);
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Critérios já convertidos para o formato das colunas. Os limites são inclusivos;
+     * groupIds ordenado (busca binária) e null quando não há filtro por grupo.
+     */
+    record Filter(int fromDay, int toDay, int categoryMask, long[] groupIds, long minCents, long maxCents) {
+
+        static final int ALL_CATEGORIES = -1;
+
+        boolean matches(long cents, long groupId, int epochDay, byte category) {
+            return epochDay >= fromDay && epochDay <= toDay
+                    && (categoryMask & (1 << category)) != 0
+                    && cents >= minCents && cents <= maxCents
+                    && (groupIds == null || Arrays.binarySearch(groupIds, groupId) >= 0);
+        }
+    }
+
+    static final class Accumulator {
+        private long totalCents;
+        private long count;
+        private long minCents = Long.MAX_VALUE;
+        private long maxCents = Long.MIN_VALUE;
+
+        private void add(long cents) {
+            totalCents += cents;
+            count++;
+            minCents = Math.min(minCents, cents);
+            maxCents = Math.max(maxCents, cents);
+        }
+
+        long totalCents() {
+            return totalCents;
+        }
+
+        long count() {
+            return count;
+        }
+
+        long minCents() {
+            return minCents;
+        }
+
+        long maxCents() {
+            return maxCents;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Publicado pelo ExpenseService dentro da transação; os ouvintes reagem só depois do commit
+public record ExpenseChangedEvent(
+        Type type,
+        Long expenseId,
+        Long groupId,
+        Long ownerId,
+        String description,
+        BigDecimal amount,
+        LocalDate date,
+        ExpenseCategory category,
+        BigDecimal previousAmount,
+        LocalDate previousDate
+) {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    public static ExpenseChangedEvent saved(Expense expense) {
+        return updated(expense, null, null);
+    }
+
+    // Valor e data anteriores permitem aos ouvintes aplicar só a diferença, sem reler o mês
+    public static ExpenseChangedEvent updated(Expense expense, BigDecimal previousAmount, LocalDate previousDate) {
+        return new ExpenseChangedEvent(Type.SAVED, expense.getId(), expense.getGroup().getId(),
+                expense.getGroup().getOwner().getId(), expense.getDescription(), expense.getAmount(),
+                expense.getDate(), expense.getCategory(), previousAmount, previousDate);
+    }
+
+    public static ExpenseChangedEvent deleted(Expense expense) {
+        return new ExpenseChangedEvent(Type.DELETED, expense.getId(), expense.getGroup().getId(),
+                expense.getGroup().getOwner().getId(), null, expense.getAmount(),
+                expense.getDate(), expense.getCategory(), null, null);
+    }
+}
@@ -0,0 +1,28 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.exceptions.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Posição (date, id) da última despesa entregue, serializada como token opaco
+record ExpenseCursor(LocalDate date, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    String encode() {
+        String raw = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ExpenseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 2);
+            return new ExpenseCursor(LocalDate.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+}
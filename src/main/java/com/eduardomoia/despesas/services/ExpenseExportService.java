@@ -0,0 +1,90 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseExportFormat;
+import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExpenseExportService {
+
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final String CSV_HEADER =
+            "id,description,amount,date,category,groupId,groupName,createdById,createdByName";
+
+    private final ExpenseRepository expenseRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    // Escreve as linhas conforme saem do cursor; a memória não depende da quantidade de despesas
+    public long export(String authenticatedEmail, ExpenseExportFormat format, OutputStream output) throws IOException {
+        log.debug("Exportando despesas user={} format={}", authenticatedEmail, format);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long count = 0;
+
+        if (format == ExpenseExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<ExpenseResponseDTO> rows = expenseRepository.streamResponsesByOwnerEmail(authenticatedEmail)) {
+            Iterator<ExpenseResponseDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExpenseResponseDTO row = iterator.next();
+                writer.write(format == ExpenseExportFormat.CSV ? toCsv(row) : objectMapper.writeValueAsString(row));
+                writer.write('\n');
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        log.info("Exportação concluída user={} format={} linhas={}", authenticatedEmail, format, count);
+        return count;
+    }
+
+    private String toCsv(ExpenseResponseDTO row) {
+        return String.join(",",
+                String.valueOf(row.id()),
+                csv(row.description()),
+                row.amount().toPlainString(),
+                String.valueOf(row.date()),
+                String.valueOf(row.category()),
+                String.valueOf(row.groupId()),
+                csv(row.groupName()),
+                String.valueOf(row.createdById()),
+                csv(row.createdByName())
+        );
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
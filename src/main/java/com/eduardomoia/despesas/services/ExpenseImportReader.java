@@ -0,0 +1,24 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.entities.enums.ExpenseImportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lê o arquivo de importação registro a registro; nenhuma implementação mantém mais
+ * que o registro corrente em memória.
+ */
+interface ExpenseImportReader extends Closeable {
+
+    // Próximo registro, ou null no fim do arquivo
+    ExpenseImportRow next() throws IOException;
+
+    static ExpenseImportReader open(ExpenseImportFormat format, BufferedReader reader, Long groupId) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvExpenseImportReader(reader, groupId);
+            case OFX -> new OfxExpenseImportReader(reader, groupId);
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+
+// Uma linha lida do arquivo: ou vira uma despesa candidata, ou carrega o erro de leitura
+record ExpenseImportRow(long rowNumber, ExpenseCreateDTO expense, String error) {
+
+    static ExpenseImportRow parsed(long rowNumber, ExpenseCreateDTO expense) {
+        return new ExpenseImportRow(rowNumber, expense, null);
+    }
+
+    static ExpenseImportRow rejected(long rowNumber, String error) {
+        return new ExpenseImportRow(rowNumber, null, error);
+    }
+}
@@ -0,0 +1,327 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.ExpenseImportProperties;
+import com.eduardomoia.despesas.dtos.expense.ExpenseBatchItemResultDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseBatchResultDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseImportJobDTO;
+import com.eduardomoia.despesas.entities.ExpenseImportJob;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseImportFormat;
+import com.eduardomoia.despesas.entities.enums.ImportJobStatus;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.exceptions.ServiceUnavailableException;
+import com.eduardomoia.despesas.repositories.ExpenseImportJobRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Importa extratos grandes em segundo plano: o upload é copiado para disco, lido em streaming
+ * e gravado em chunks de tamanho fixo, cada um na sua transação. O progresso confirmado fica
+ * no job, então uma importação que falhou pode ser retomada a partir do último chunk gravado.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseImportService {
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final ExpenseImportJobRepository jobRepository;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final ExpenseService expenseService;
+    private final ExpenseImportProperties properties;
+    private final ThreadPoolExecutor expenseImportExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExpenseImportJobDTO submit(InputStream content, String fileName, ExpenseImportFormat format,
+                                      Long groupId, String authenticatedEmail) {
+        log.debug("Recebendo importação groupId={} format={} user={}", groupId, format, authenticatedEmail);
+        ensureCapacity();
+
+        Path storagePath = spool(content);
+        ExpenseImportJob job;
+        try {
+            job = transactionTemplate.execute(status -> {
+                User currentUser = findUserByEmail(authenticatedEmail);
+                Group group = groupRepository.findById(groupId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Grupo não encontrado para o id: " + groupId));
+                if (group.getOwner() == null || !group.getOwner().getId().equals(currentUser.getId())) {
+                    throw new AccessDeniedException("Usuário não possui acesso às despesas do grupo solicitado.");
+                }
+
+                return jobRepository.save(ExpenseImportJob.builder()
+                        .owner(currentUser)
+                        .group(group)
+                        .format(format)
+                        .status(ImportJobStatus.PENDING)
+                        .fileName(fileName)
+                        .storagePath(storagePath.toString())
+                        .createdAt(Instant.now())
+                        .build());
+            });
+        } catch (RuntimeException e) {
+            deleteQuietly(storagePath);
+            throw e;
+        }
+
+        dispatch(job.getId());
+        log.info("Importação enfileirada jobId={} groupId={} user={}", job.getId(), groupId, authenticatedEmail);
+        return toDTO(job);
+    }
+
+    public ExpenseImportJobDTO findById(Long jobId, String authenticatedEmail) {
+        return transactionTemplate.execute(status -> toDTO(findOwnedJob(jobId, authenticatedEmail)));
+    }
+
+    public ExpenseImportJobDTO resume(Long jobId, String authenticatedEmail) {
+        log.debug("Retomando importação jobId={} user={}", jobId, authenticatedEmail);
+        ensureCapacity();
+
+        ExpenseImportJob job = transactionTemplate.execute(status -> {
+            ExpenseImportJob owned = findOwnedJob(jobId, authenticatedEmail);
+            if (owned.getStatus() != ImportJobStatus.FAILED) {
+                throw new BusinessException("Somente importações com falha podem ser retomadas.");
+            }
+            owned.setStatus(ImportJobStatus.PENDING);
+            owned.setLastError(null);
+            owned.setFinishedAt(null);
+            return owned;
+        });
+
+        dispatch(jobId);
+        log.info("Importação retomada jobId={} a partir da linha {}", jobId, job.getProcessedRows());
+        return toDTO(job);
+    }
+
+    // Executado no pool de importação; público para ser chamado diretamente em testes
+    public void run(Long jobId) {
+        JobContext context = transactionTemplate.execute(status -> {
+            ExpenseImportJob job = findJob(jobId);
+            job.setStatus(ImportJobStatus.RUNNING);
+            return new JobContext(job.getOwner().getEmail(), job.getGroup().getId(), job.getFormat(),
+                    Path.of(job.getStoragePath()), job.getProcessedRows());
+        });
+
+        log.info("Iniciando importação jobId={} a partir da linha {}", jobId, context.skipRows());
+        try (ExpenseImportReader reader = ExpenseImportReader.open(context.format(),
+                Files.newBufferedReader(context.storagePath(), StandardCharsets.UTF_8), context.groupId())) {
+
+            for (long i = 0; i < context.skipRows() && reader.next() != null; i++) {
+                // registros já confirmados em execuções anteriores
+            }
+
+            List<ExpenseImportRow> chunk;
+            while (!(chunk = readChunk(reader)).isEmpty()) {
+                processChunk(jobId, chunk, context.ownerEmail());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Importação falhou jobId={}: {}", jobId, e.getMessage(), e);
+            finish(jobId, ImportJobStatus.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            return;
+        }
+
+        finish(jobId, ImportJobStatus.COMPLETED, null);
+        deleteQuietly(context.storagePath());
+    }
+
+    // Jobs que estavam em andamento quando a aplicação parou ficam disponíveis para retomada
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        Integer interrupted = transactionTemplate.execute(status -> jobRepository.failAll(
+                List.of(ImportJobStatus.PENDING, ImportJobStatus.RUNNING),
+                "Importação interrompida pela reinicialização da aplicação."));
+        if (interrupted != null && interrupted > 0) {
+            log.warn("{} importações interrompidas marcadas como falhas", interrupted);
+        }
+    }
+
+    private List<ExpenseImportRow> readChunk(ExpenseImportReader reader) throws IOException {
+        List<ExpenseImportRow> chunk = new ArrayList<>(properties.chunkSize());
+        ExpenseImportRow row;
+        while (chunk.size() < properties.chunkSize() && (row = reader.next()) != null) {
+            chunk.add(row);
+        }
+        return chunk;
+    }
+
+    // Despesas do chunk e progresso do job são confirmados juntos: ou o chunk inteiro conta, ou nada dele
+    private void processChunk(Long jobId, List<ExpenseImportRow> chunk, String ownerEmail) {
+        long started = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ExpenseCreateDTO> items = new ArrayList<>(chunk.size());
+            List<ExpenseImportRow> itemRows = new ArrayList<>(chunk.size());
+            String lastRejection = null;
+            long rejected = 0;
+
+            for (ExpenseImportRow row : chunk) {
+                if (row.error() != null) {
+                    rejected++;
+                    lastRejection = describe(row, row.error());
+                } else {
+                    items.add(row.expense());
+                    itemRows.add(row);
+                }
+            }
+
+            long imported = 0;
+            if (!items.isEmpty()) {
+                ExpenseBatchResultDTO result = expenseService.createBatch(items, ownerEmail);
+                imported = result.created();
+                rejected += result.failed();
+                for (ExpenseBatchItemResultDTO item : result.items()) {
+                    if (item.error() != null) {
+                        lastRejection = describe(itemRows.get(item.index()), item.error());
+                    }
+                }
+            }
+
+            ExpenseImportJob job = findJob(jobId);
+            job.setProcessedRows(job.getProcessedRows() + chunk.size());
+            job.setImportedRows(job.getImportedRows() + imported);
+            job.setRejectedRows(job.getRejectedRows() + rejected);
+            job.setProcessingMillis(job.getProcessingMillis() + (System.nanoTime() - started) / 1_000_000);
+            if (lastRejection != null) {
+                job.setLastRejection(truncate(lastRejection));
+            }
+        });
+    }
+
+    private void finish(Long jobId, ImportJobStatus status, String error) {
+        ExpenseImportJob job = transactionTemplate.execute(tx -> {
+            ExpenseImportJob current = findJob(jobId);
+            current.setStatus(status);
+            current.setLastError(truncate(error));
+            current.setFinishedAt(Instant.now());
+            return current;
+        });
+        log.info("Importação finalizada jobId={} status={} importadas={} recusadas={} linhas/s={}",
+                jobId, status, job.getImportedRows(), job.getRejectedRows(), String.format("%.1f", rowsPerSecond(job)));
+    }
+
+    private void dispatch(Long jobId) {
+        try {
+            expenseImportExecutor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            transactionTemplate.executeWithoutResult(status -> {
+                ExpenseImportJob job = findJob(jobId);
+                job.setStatus(ImportJobStatus.FAILED);
+                job.setLastError("Fila de importação cheia; retome a importação mais tarde.");
+            });
+            throw overloaded();
+        }
+    }
+
+    // Recusa cedo, antes de copiar o arquivo, quando a fila já está cheia
+    private void ensureCapacity() {
+        if (expenseImportExecutor.getQueue().remainingCapacity() == 0) {
+            log.warn("Fila de importação cheia ({} pendentes)", expenseImportExecutor.getQueue().size());
+            throw overloaded();
+        }
+    }
+
+    private ServiceUnavailableException overloaded() {
+        return new ServiceUnavailableException(
+                "Muitas importações em andamento. Tente novamente em instantes.",
+                properties.retryAfter()
+        );
+    }
+
+    private Path spool(InputStream content) {
+        try {
+            Files.createDirectories(properties.storageDir());
+            Path target = properties.storageDir().resolve(UUID.randomUUID() + ".import");
+            try (content) {
+                Files.copy(content, target);
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao armazenar o arquivo de importação.", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo de importação {}: {}", path, e.getMessage());
+        }
+    }
+
+    private ExpenseImportJob findOwnedJob(Long jobId, String authenticatedEmail) {
+        ExpenseImportJob job = findJob(jobId);
+        if (!job.getOwner().getEmail().equals(authenticatedEmail)) {
+            throw new AccessDeniedException("Usuário não possui acesso à importação solicitada.");
+        }
+        return job;
+    }
+
+    private ExpenseImportJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Importação não encontrada para o id: " + jobId));
+    }
+
+    private User findUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+    }
+
+    private String describe(ExpenseImportRow row, String error) {
+        return "Registro " + row.rowNumber() + ": " + error;
+    }
+
+    private String truncate(String message) {
+        return message == null || message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private double rowsPerSecond(ExpenseImportJob job) {
+        return job.getProcessingMillis() == 0 ? 0.0 : job.getProcessedRows() * 1000.0 / job.getProcessingMillis();
+    }
+
+    private ExpenseImportJobDTO toDTO(ExpenseImportJob job) {
+        return new ExpenseImportJobDTO(
+                job.getId(),
+                job.getGroup().getId(),
+                job.getFileName(),
+                job.getFormat(),
+                job.getStatus(),
+                job.getProcessedRows(),
+                job.getImportedRows(),
+                job.getRejectedRows(),
+                rowsPerSecond(job),
+                job.getLastRejection(),
+                job.getLastError(),
+                job.getCreatedAt(),
+                job.getFinishedAt()
+        );
+    }
+
+    private record JobContext(String ownerEmail, Long groupId, ExpenseImportFormat format,
+                              Path storagePath, long skipRows) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseFilterDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportGrouping;
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportRowDTO;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.repositories.ExpenseAnalyticsProjection;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Relatórios interativos sobre o snapshot colunar do dono: depois da primeira carga,
+ * filtros e agrupamentos não vão ao banco.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExpenseReportService {
+
+    private final ExpenseAnalyticsCache analyticsCache;
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+
+    // Um groupId de outro dono simplesmente não casa com nenhuma linha do snapshot
+    public ExpenseReportDTO report(ExpenseReportGrouping groupBy, ExpenseFilterDTO filter, String authenticatedEmail) {
+        log.debug("Relatório de despesas user={} groupBy={} filter={}", authenticatedEmail, groupBy, filter);
+        validateFilter(filter);
+
+        Long ownerId = userRepository.findIdByEmail(authenticatedEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+        ExpenseAnalyticsSnapshot snapshot = analyticsCache.get(ownerId, this::load);
+
+        Map<Long, ExpenseAnalyticsSnapshot.Accumulator> aggregated = snapshot.aggregate(toColumnFilter(filter), groupBy);
+
+        List<ExpenseReportRowDTO> rows = new ArrayList<>(aggregated.size());
+        long totalCents = 0;
+        long count = 0;
+        for (Map.Entry<Long, ExpenseAnalyticsSnapshot.Accumulator> entry : aggregated.entrySet()) {
+            ExpenseAnalyticsSnapshot.Accumulator acc = entry.getValue();
+            rows.add(new ExpenseReportRowDTO(
+                    describeKey(groupBy, entry.getKey()),
+                    fromCents(acc.totalCents()),
+                    acc.count(),
+                    fromCents(acc.totalCents()).divide(BigDecimal.valueOf(acc.count()), 2, RoundingMode.HALF_UP),
+                    fromCents(acc.minCents()),
+                    fromCents(acc.maxCents())
+            ));
+            totalCents += acc.totalCents();
+            count += acc.count();
+        }
+
+        return new ExpenseReportDTO(groupBy, rows, fromCents(totalCents), count);
+    }
+
+    private ExpenseAnalyticsSnapshot load(Long ownerId) {
+        long started = System.currentTimeMillis();
+        ExpenseAnalyticsSnapshot snapshot = new ExpenseAnalyticsSnapshot(1024);
+        try (Stream<ExpenseAnalyticsProjection> rows = expenseRepository.streamAnalyticsRowsByOwnerId(ownerId)) {
+            rows.forEach(row -> snapshot.append(row.id(), row.groupId(), row.amount(), row.date(), row.category()));
+        }
+        log.info("Snapshot analítico carregado ownerId={} linhas={} em {} ms",
+                ownerId, snapshot.size(), System.currentTimeMillis() - started);
+        return snapshot;
+    }
+
+    private ExpenseAnalyticsSnapshot.Filter toColumnFilter(ExpenseFilterDTO filter) {
+        int categoryMask = ExpenseAnalyticsSnapshot.Filter.ALL_CATEGORIES;
+        if (filter.categories() != null && !filter.categories().isEmpty()) {
+            categoryMask = 0;
+            for (ExpenseCategory category : filter.categories()) {
+                categoryMask |= 1 << category.ordinal();
+            }
+        }
+
+        return new ExpenseAnalyticsSnapshot.Filter(
+                filter.from() != null ? (int) filter.from().toEpochDay() : Integer.MIN_VALUE,
+                filter.to() != null ? (int) filter.to().toEpochDay() : Integer.MAX_VALUE,
+                categoryMask,
+                filter.groupId() != null ? new long[]{filter.groupId()} : null,
+                filter.minAmount() != null ? ExpenseAnalyticsSnapshot.toCents(filter.minAmount().setScale(2, RoundingMode.CEILING)) : Long.MIN_VALUE,
+                filter.maxAmount() != null ? ExpenseAnalyticsSnapshot.toCents(filter.maxAmount().setScale(2, RoundingMode.FLOOR)) : Long.MAX_VALUE
+        );
+    }
+
+    private String describeKey(ExpenseReportGrouping groupBy, long key) {
+        return switch (groupBy) {
+            case NONE -> "TOTAL";
+            case CATEGORY -> ExpenseCategory.values()[(int) key].name();
+            case GROUP, YEAR -> String.valueOf(key);
+            case MONTH -> YearMonth.of((int) (key / 12), (int) (key % 12) + 1).toString();
+            case DAY_OF_WEEK -> DayOfWeek.of((int) key + 1).name();
+        };
+    }
+
+    private void validateFilter(ExpenseFilterDTO filter) {
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new BusinessException("A data inicial deve ser anterior ou igual à data final.");
+        }
+        if (filter.minAmount() != null && filter.maxAmount() != null
+                && filter.minAmount().compareTo(filter.maxAmount()) > 0) {
+            throw new BusinessException("O valor mínimo deve ser menor ou igual ao valor máximo.");
+        }
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
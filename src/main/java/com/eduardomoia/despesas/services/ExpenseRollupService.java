@@ -0,0 +1,212 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.ExpenseRollupProperties;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.ExpenseMonthlyRollup;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.repositories.ExpenseMonthlyRollupRepository;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.ExpenseRollupProjection;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ExpenseRollupService {
+
+    private static final String INSERT_ROLLUP = """
+            insert into expense_monthly_rollups (group_id, period_start, category, total, expense_count)
+            values (?, ?, ?, ?, ?)
+            """;
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final GroupRepository groupRepository;
+    private final ExpenseRollupProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Chamados dentro da transação que grava a despesa, para o rollup nunca divergir dela
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Expense expense) {
+        apply(expense.getGroup().getId(), expense.getDate(), expense.getCategory(), expense.getAmount(), 1);
+    }
+
+    // Soma as despesas por (grupo, mês, categoria) antes de aplicar: um update por chave, não por despesa
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(Collection<Expense> expenses) {
+        Map<RollupKey, RollupDelta> deltas = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            RollupKey key = new RollupKey(expense.getGroup().getId(), expense.getDate().withDayOfMonth(1), expense.getCategory());
+            deltas.computeIfAbsent(key, k -> new RollupDelta()).add(expense.getAmount());
+        }
+        deltas.forEach((key, delta) -> apply(key.groupId(), key.periodStart(), key.category(), delta.total, delta.count));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtract(Expense expense) {
+        apply(expense.getGroup().getId(), expense.getDate(), expense.getCategory(), expense.getAmount().negate(), -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Long groupId, LocalDate date, ExpenseCategory category, BigDecimal amount, long count) {
+        LocalDate periodStart = date.withDayOfMonth(1);
+
+        int updated = rollupRepository.increment(groupId, periodStart, category, amount, count);
+        if (updated == 0) {
+            if (count < 0) {
+                log.warn("Rollup ausente ao remover despesa groupId={} period={} category={}", groupId, periodStart, category);
+                return;
+            }
+            insertOrIncrement(groupId, periodStart, category, amount, count);
+        } else if (count < 0) {
+            rollupRepository.deleteIfEmpty(groupId, periodStart, category);
+        }
+    }
+
+    // Primeira despesa da chave. Se outra transação inseriu a mesma chave depois do nosso update, o insert falha
+    // na unique (o H2 espera o commit dela) e volta só ao savepoint; a soma então cai na linha já confirmada.
+    // Pela conexão da transação e não pelo Hibernate: lá o erro de constraint marcaria a transação para rollback,
+    // e o JpaDialect não oferece savepoints
+    private void insertOrIncrement(Long groupId, LocalDate periodStart, ExpenseCategory category, BigDecimal amount, long count) {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+                Savepoint savepoint = connection.setSavepoint();
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_ROLLUP)) {
+                    insert.setLong(1, groupId);
+                    insert.setObject(2, periodStart);
+                    insert.setString(3, category.name());
+                    insert.setBigDecimal(4, amount);
+                    insert.setLong(5, count);
+                    int inserted = insert.executeUpdate();
+                    connection.releaseSavepoint(savepoint);
+                    return inserted;
+                } catch (SQLException e) {
+                    connection.rollback(savepoint);
+                    throw e;
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            log.debug("Rollup inserido por outra transação groupId={} period={} category={}", groupId, periodStart, category);
+            rollupRepository.increment(groupId, periodStart, category, amount, count);
+        }
+    }
+
+    public void rebuild() {
+        log.info("Reconstruindo rollups mensais de despesas");
+        rollupRepository.deleteAllInBatch();
+
+        List<ExpenseMonthlyRollup> rollups = expenseRepository.aggregateMonthlyRollups().stream()
+                .map(row -> ExpenseMonthlyRollup.builder()
+                        .group(groupRepository.getReferenceById(row.groupId()))
+                        .periodStart(row.periodStart())
+                        .category(row.category())
+                        .total(row.total())
+                        .expenseCount(row.expenseCount())
+                        .build())
+                .toList();
+
+        rollupRepository.saveAll(rollups);
+        log.info("Rollups mensais reconstruídos: {} linhas", rollups.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> findInconsistencies() {
+        Map<RollupKey, ExpenseRollupProjection> expected = indexByKey(expenseRepository.aggregateMonthlyRollups());
+        Map<RollupKey, ExpenseRollupProjection> actual = indexByKey(rollupRepository.findAllProjections());
+
+        Set<RollupKey> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+
+        List<String> inconsistencies = new ArrayList<>();
+        for (RollupKey key : keys) {
+            ExpenseRollupProjection e = expected.get(key);
+            ExpenseRollupProjection a = actual.get(key);
+            if (!sameTotals(e, a)) {
+                inconsistencies.add(key + " esperado=" + describe(e) + " atual=" + describe(a));
+            }
+        }
+        return inconsistencies;
+    }
+
+    @Scheduled(cron = "${despesas.rollup.verify-cron:0 30 3 * * *}")
+    public void verify() {
+        List<String> inconsistencies = findInconsistencies();
+        if (inconsistencies.isEmpty()) {
+            log.debug("Rollups mensais consistentes");
+            return;
+        }
+
+        log.warn("Rollups mensais inconsistentes ({}): {}", inconsistencies.size(), inconsistencies);
+        if (properties.repairOnMismatch()) {
+            rebuild();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (properties.backfillOnStartup() && rollupRepository.count() == 0 && expenseRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private Map<RollupKey, ExpenseRollupProjection> indexByKey(List<ExpenseRollupProjection> rows) {
+        return rows.stream().collect(Collectors.toMap(
+                row -> new RollupKey(row.groupId(), row.periodStart(), row.category()),
+                Function.identity()
+        ));
+    }
+
+    private boolean sameTotals(ExpenseRollupProjection expected, ExpenseRollupProjection actual) {
+        if (expected == null || actual == null) {
+            return Objects.equals(expected, actual);
+        }
+        return expected.expenseCount() == actual.expenseCount()
+                && expected.total().compareTo(actual.total()) == 0;
+    }
+
+    private String describe(ExpenseRollupProjection row) {
+        return row == null ? "-" : row.total() + "/" + row.expenseCount();
+    }
+
+    private record RollupKey(Long groupId, LocalDate periodStart, ExpenseCategory category) {
+    }
+
+    private static final class RollupDelta {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        private void add(BigDecimal amount) {
+            total = total.add(amount);
+            count++;
+        }
+    }
+}
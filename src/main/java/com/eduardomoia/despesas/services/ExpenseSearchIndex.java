@@ -0,0 +1,198 @@
+package com.eduardomoia.despesas.services;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória sobre as descrições das despesas: cada token normalizado
+ * (minúsculo, sem acentos) aponta para a lista ordenada de ids que o contêm. Buscas
+ * exigem todos os termos da consulta, aceitando prefixo, e ranqueiam por raridade do termo.
+ */
+@Component
+public class ExpenseSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+    // Casamento por prefixo vale menos que o termo exato
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private Map<Long, Document> documents = new HashMap<>();
+
+    public void index(long expenseId, long groupId, String description) {
+        String[] tokens = tokenize(description).toArray(String[]::new);
+
+        lock.writeLock().lock();
+        try {
+            unindex(expenseId);
+            documents.put(expenseId, new Document(groupId, tokens));
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new PostingList()).add(expenseId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long expenseId) {
+        lock.writeLock().lock();
+        try {
+            unindex(expenseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Assume o conteúdo de um índice montado à parte; quem o montou não deve mais usá-lo
+    public void replaceWith(ExpenseSearchIndex loaded) {
+        lock.writeLock().lock();
+        try {
+            postings = loaded.postings;
+            documents = loaded.documents;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids mais relevantes primeiro; empate favorece o id maior (despesa mais recente)
+    public List<Hit> search(String query, LongPredicate groupFilter, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = score(term, groupFilter, scores);
+                if (termScores.isEmpty()) {
+                    return List.of();
+                }
+                if (scores != null) {
+                    Map<Long, Double> previous = scores;
+                    termScores.replaceAll((id, score) -> score + previous.get(id));
+                }
+                scores = termScores;
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                    .thenComparing(Comparator.comparingLong(Hit::expenseId).reversed()));
+            return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Melhor pontuação do termo por documento; com candidatos, só os ids que casaram os termos anteriores
+    private Map<Long, Double> score(String term, LongPredicate groupFilter, Map<Long, Double> candidates) {
+        Map<Long, Double> termScores = new HashMap<>();
+        for (Map.Entry<String, PostingList> entry : postings.subMap(term, true, term + Character.MAX_VALUE, true).entrySet()) {
+            PostingList list = entry.getValue();
+            double weight = Math.log(1.0 + (double) documents.size() / list.size)
+                    * (entry.getKey().equals(term) ? 1.0 : PREFIX_WEIGHT);
+
+            for (int i = 0; i < list.size; i++) {
+                long id = list.ids[i];
+                if (candidates != null ? !candidates.containsKey(id) : !groupFilter.test(documents.get(id).groupId())) {
+                    continue;
+                }
+                termScores.merge(id, weight, Math::max);
+            }
+        }
+        return termScores;
+    }
+
+    private void unindex(long expenseId) {
+        Document previous = documents.remove(expenseId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous.tokens()) {
+            PostingList list = postings.get(token);
+            if (list != null && list.remove(expenseId) && list.size == 0) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(folded)) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public record Hit(long expenseId, double score) {
+    }
+
+    private record Document(long groupId, String[] tokens) {
+    }
+
+    // Ids ordenados em um long[]: sem boxing e com busca binária; inserções de ids novos caem no fim
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.ExpenseSearchProjection;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExpenseSearchService implements SmartInitializingSingleton {
+
+    private static final int MAX_RESULTS = 100;
+
+    private final ExpenseSearchIndex searchIndex;
+    private final ExpenseRepository expenseRepository;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+
+    // Eventos e a troca do índice se alternam por este lock; buscas usam só o lock do próprio índice
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Não nulo enquanto há carga em andamento (ou nenhuma carga concluída): eventos a reaplicar no índice novo
+    private List<ExpenseChangedEvent> pending = new ArrayList<>();
+
+    // Busca no índice só entre os grupos do usuário e carrega os DTOs dos ids ranqueados num único select
+    public List<ExpenseResponseDTO> search(String query, int limit, String authenticatedEmail) {
+        log.debug("Buscando despesas por texto user={} query={}", authenticatedEmail, query);
+        userRepository.findByEmail(authenticatedEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+
+        Set<Long> groupIds = new HashSet<>(groupRepository.findIdsByOwnerEmail(authenticatedEmail));
+        if (groupIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<ExpenseSearchIndex.Hit> hits = searchIndex.search(query, groupIds::contains,
+                Math.min(Math.max(limit, 1), MAX_RESULTS));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ExpenseResponseDTO> byId = expenseRepository
+                .findResponsesByIdIn(hits.stream().map(ExpenseSearchIndex.Hit::expenseId).toList()).stream()
+                .collect(Collectors.toMap(ExpenseResponseDTO::id, Function.identity()));
+
+        // Um id pode ter sumido entre a busca e o select (grupo removido); a ordem do ranking é mantida
+        return hits.stream()
+                .map(hit -> byId.get(hit.expenseId()))
+                .filter(dto -> dto != null && groupIds.contains(dto.groupId()))
+                .toList();
+    }
+
+    // Só depois do commit: uma transação desfeita não deixa rastro no índice
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        writeLock.lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            apply(searchIndex, event);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Antes de o servidor web e o agendador subirem, como o GroupBudgetTracker: a primeira busca já encontra o índice cheio
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        rebuild(expenseRepository::streamSearchEntries);
+    }
+
+    // O índice atual continua atendendo durante a carga. Os eventos anotados desde antes da leitura são
+    // reaplicados, em ordem, no índice novo: uma alteração confirmada no meio da leitura não é sobrescrita
+    // pela linha já lida, e uma despesa removida não fica como documento fantasma
+    void rebuild(Supplier<Stream<ExpenseSearchProjection>> source) {
+        rebuildLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            writeLock.lock();
+            try {
+                if (pending == null) {
+                    pending = new ArrayList<>();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+
+            ExpenseSearchIndex loaded = new ExpenseSearchIndex();
+            try (Stream<ExpenseSearchProjection> rows = source.get()) {
+                rows.forEach(row -> loaded.index(row.id(), row.groupId(), row.description()));
+            }
+
+            int replayed;
+            writeLock.lock();
+            try {
+                replayed = pending.size();
+                pending.forEach(event -> apply(loaded, event));
+                pending = null;
+                searchIndex.replaceWith(loaded);
+            } finally {
+                writeLock.unlock();
+            }
+
+            log.info("Índice de busca de despesas reconstruído: {} despesas ({} eventos reaplicados) em {} ms",
+                    searchIndex.size(), replayed, System.currentTimeMillis() - started);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static void apply(ExpenseSearchIndex index, ExpenseChangedEvent event) {
+        if (event.type() == ExpenseChangedEvent.Type.DELETED) {
+            index.remove(event.expenseId());
+        } else {
+            index.index(event.expenseId(), event.groupId(), event.description());
+        }
+    }
+}
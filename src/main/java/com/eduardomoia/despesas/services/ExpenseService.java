@@ -1,40 +1,71 @@
 package com.eduardomoia.despesas.services;
 
+import com.eduardomoia.despesas.dtos.expense.ExpenseBatchItemResultDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseBatchResultDTO;
 import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseFilterDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpensePatchDTO;
 import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSliceDTO;
 import com.eduardomoia.despesas.dtos.expense.ExpenseUpdateDTO;
 import com.eduardomoia.despesas.entities.Expense;
 import com.eduardomoia.despesas.entities.Group;
 import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.PreconditionFailedException;
 import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
 import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.ExpenseSpecifications;
 import com.eduardomoia.despesas.repositories.GroupRepository;
 import com.eduardomoia.despesas.repositories.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ExpenseService {
 
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final ExpenseRepository expenseRepository;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final GroupOwnershipIndex ownershipIndex;
+    private final ExpenseRollupService expenseRollupService;
+    private final ExpenseSplitService expenseSplitService;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ExpenseResponseDTO create(ExpenseCreateDTO dto, String authenticatedEmail) {
         log.debug("Criando despesa para groupId={} user={}", dto.groupId(), authenticatedEmail);
 
+        Group group = findOwnedGroup(dto.groupId(), authenticatedEmail);
         User currentUser = findUserByEmail(authenticatedEmail);
-        Group group = findGroup(dto.groupId());
-        validateGroupOwnership(group, currentUser);
 
         Expense expense = new Expense();
         expense.setDescription(dto.description());
@@ -45,92 +76,310 @@ public class ExpenseService {
         expense.setCreatedBy(currentUser);
 
         Expense saved = expenseRepository.save(expense);
+        expenseRollupService.add(saved);
+        eventPublisher.publishEvent(ExpenseChangedEvent.saved(saved));
 
-        log.info("Despesa criada id={} groupId={} por user={}", saved.getId(), group.getId(), currentUser.getEmail());
+        log.info("Despesa criada id={} groupId={} por user={}", saved.getId(), group.getId(), authenticatedEmail);
         return toResponseDTO(saved);
     }
 
+    // Resolve usuário e grupos uma única vez e grava as despesas válidas em lotes JDBC; os itens recusados
+    // (inválidos, grupo inexistente ou de outro dono) são reportados por índice sem impedir os demais
+    @Transactional
+    public ExpenseBatchResultDTO createBatch(List<ExpenseCreateDTO> items, String authenticatedEmail) {
+        log.debug("Criando lote de {} despesas user={}", items.size(), authenticatedEmail);
+
+        User currentUser = findUserByEmail(authenticatedEmail);
+        Set<Long> groupIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(ExpenseCreateDTO::groupId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Group> groups = groupRepository.findAllById(groupIds).stream()
+                .collect(Collectors.toMap(Group::getId, Function.identity()));
+
+        ExpenseBatchItemResultDTO[] results = new ExpenseBatchItemResultDTO[items.size()];
+        List<Expense> pending = new ArrayList<>();
+        List<Integer> pendingIndexes = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            ExpenseCreateDTO dto = items.get(i);
+            String error = validateBatchItem(dto, groups, currentUser);
+            if (error != null) {
+                results[i] = ExpenseBatchItemResultDTO.failed(i, error);
+                continue;
+            }
+
+            Expense expense = new Expense();
+            expense.setDescription(dto.description());
+            expense.setAmount(dto.amount());
+            expense.setDate(dto.date());
+            expense.setCategory(dto.category());
+            expense.setGroup(groups.get(dto.groupId()));
+            expense.setCreatedBy(currentUser);
+            pending.add(expense);
+            pendingIndexes.add(i);
+        }
+
+        List<Expense> saved = persistAll(pending);
+
+        for (int i = 0; i < saved.size(); i++) {
+            int index = pendingIndexes.get(i);
+            results[index] = ExpenseBatchItemResultDTO.created(index, toResponseDTO(saved.get(i)));
+        }
+
+        int failed = items.size() - saved.size();
+        log.info("Lote de despesas gravado user={} criadas={} recusadas={}", authenticatedEmail, saved.size(), failed);
+        return new ExpenseBatchResultDTO(saved.size(), failed, List.of(results));
+    }
+
     public Page<ExpenseResponseDTO> findAll(Pageable pageable, String authenticatedEmail) {
         log.debug("Listando despesas user={} pageable={}", authenticatedEmail, pageable);
-        findUserByEmail(authenticatedEmail); // garante existência
-        return expenseRepository.findByGroup_Owner_Email(authenticatedEmail, pageable)
-                .map(this::toResponseDTO);
+        return expenseRepository.findResponsesByOwnerEmail(authenticatedEmail, pageable);
     }
 
     public Page<ExpenseResponseDTO> findByGroup(Long groupId, Pageable pageable, String authenticatedEmail) {
         log.debug("Listando despesas do grupo groupId={} user={} pageable={}", groupId, authenticatedEmail, pageable);
-        User currentUser = findUserByEmail(authenticatedEmail);
-        Group group = findOwnedGroup(groupId, currentUser);
-        return expenseRepository.findByGroup_Id(group.getId(), pageable)
+        validateOwnedGroup(groupId, authenticatedEmail);
+        return expenseRepository.findResponsesByGroupId(groupId, pageable);
+    }
+
+    public Page<ExpenseResponseDTO> search(ExpenseFilterDTO filter, Pageable pageable, String authenticatedEmail) {
+        log.debug("Filtrando despesas user={} filter={} pageable={}", authenticatedEmail, filter, pageable);
+        validateFilter(filter);
+
+        if (filter.groupId() != null) {
+            validateOwnedGroup(filter.groupId(), authenticatedEmail);
+        }
+
+        return expenseRepository.findAll(ExpenseSpecifications.matching(authenticatedEmail, filter), pageable)
                 .map(this::toResponseDTO);
     }
 
+    public ExpenseSliceDTO scroll(String cursor, int size, String authenticatedEmail) {
+        log.debug("Listando despesas por cursor user={} size={}", authenticatedEmail, size);
+        Limit limit = sliceLimit(size);
+
+        List<ExpenseResponseDTO> rows;
+        if (cursor == null) {
+            rows = expenseRepository.findFirstByOwnerEmail(authenticatedEmail, limit);
+        } else {
+            ExpenseCursor position = ExpenseCursor.decode(cursor);
+            rows = expenseRepository.findNextByOwnerEmail(authenticatedEmail, position.date(), position.id(), limit);
+        }
+
+        return toSliceDTO(rows, limit.max() - 1);
+    }
+
+    public ExpenseSliceDTO scrollByGroup(Long groupId, String cursor, int size, String authenticatedEmail) {
+        log.debug("Listando despesas do grupo por cursor groupId={} user={} size={}", groupId, authenticatedEmail, size);
+        validateOwnedGroup(groupId, authenticatedEmail);
+        Limit limit = sliceLimit(size);
+
+        List<ExpenseResponseDTO> rows;
+        if (cursor == null) {
+            rows = expenseRepository.findFirstByGroupId(groupId, limit);
+        } else {
+            ExpenseCursor position = ExpenseCursor.decode(cursor);
+            rows = expenseRepository.findNextByGroupId(groupId, position.date(), position.id(), limit);
+        }
+
+        return toSliceDTO(rows, limit.max() - 1);
+    }
+
     public ExpenseResponseDTO findById(Long id, String authenticatedEmail) {
         log.debug("Buscando despesa id={} user={}", id, authenticatedEmail);
-        User currentUser = findUserByEmail(authenticatedEmail);
-        Expense expense = findOwnedExpense(id, currentUser);
-        return toResponseDTO(expense);
+        return expenseRepository.findOwnedResponseById(id, authenticatedEmail)
+                .orElseThrow(() -> expenseAccessFailure(id));
     }
 
+    // expectedVersion vem do If-Match; nulo dispensa a pré-condição e fica só o @Version contra escritas simultâneas
     @Transactional
-    public ExpenseResponseDTO update(Long id, ExpenseUpdateDTO dto, String authenticatedEmail) {
-        log.debug("Atualizando despesa id={} user={}", id, authenticatedEmail);
+    public ExpenseResponseDTO update(Long id, ExpenseUpdateDTO dto, Long expectedVersion, String authenticatedEmail) {
+        log.debug("Atualizando despesa id={} version={} user={}", id, expectedVersion, authenticatedEmail);
 
-        User currentUser = findUserByEmail(authenticatedEmail);
-        Expense expense = findOwnedExpense(id, currentUser);
+        Expense expense = findOwnedExpense(id, authenticatedEmail);
+        checkVersion(expense, expectedVersion);
+        return applyChanges(expense, dto.description(), dto.amount(), dto.date(), dto.category(), authenticatedEmail);
+    }
 
-        expense.setDescription(dto.description());
-        expense.setAmount(dto.amount());
-        expense.setDate(dto.date());
-        expense.setCategory(dto.category());
+    @Transactional
+    public ExpenseResponseDTO patch(Long id, ExpensePatchDTO dto, Long expectedVersion, String authenticatedEmail) {
+        log.debug("Atualizando parcialmente despesa id={} version={} user={}", id, expectedVersion, authenticatedEmail);
 
-        Expense updated = expenseRepository.save(expense);
-        log.info("Despesa atualizada id={} por user={}", updated.getId(), currentUser.getEmail());
+        Expense expense = findOwnedExpense(id, authenticatedEmail);
+        checkVersion(expense, expectedVersion);
+        return applyChanges(expense,
+                Objects.requireNonNullElse(dto.description(), expense.getDescription()),
+                Objects.requireNonNullElse(dto.amount(), expense.getAmount()),
+                Objects.requireNonNullElse(dto.date(), expense.getDate()),
+                Objects.requireNonNullElse(dto.category(), expense.getCategory()),
+                authenticatedEmail);
+    }
+
+    private ExpenseResponseDTO applyChanges(Expense expense, String description, BigDecimal amount, LocalDate date,
+                                            ExpenseCategory category, String authenticatedEmail) {
+        expenseRollupService.subtract(expense);
+        BigDecimal previousAmount = expense.getAmount();
+        LocalDate previousDate = expense.getDate();
+
+        expense.setDescription(description);
+        expense.setAmount(amount);
+        expense.setDate(date);
+        expense.setCategory(category);
+
+        // Flush aqui para a resposta (e o ETag) já trazer a versão incrementada
+        Expense updated = expenseRepository.saveAndFlush(expense);
+        expenseRollupService.add(updated);
+        expenseSplitService.onAmountChanged(updated, previousAmount);
+        eventPublisher.publishEvent(ExpenseChangedEvent.updated(updated, previousAmount, previousDate));
+        log.info("Despesa atualizada id={} version={} por user={}", updated.getId(), updated.getVersion(),
+                authenticatedEmail);
 
         return toResponseDTO(updated);
     }
 
+    private void checkVersion(Expense expense, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(expense.getVersion())) {
+            throw new PreconditionFailedException("A despesa foi alterada desde a versão informada (atual: "
+                    + expense.getVersion() + ").");
+        }
+    }
+
     @Transactional
     public void delete(Long id, String authenticatedEmail) {
         log.debug("Removendo despesa id={} user={}", id, authenticatedEmail);
-        User currentUser = findUserByEmail(authenticatedEmail);
-        Expense expense = findOwnedExpense(id, currentUser);
+        Expense expense = findOwnedExpense(id, authenticatedEmail);
+        expenseRollupService.subtract(expense);
+        expenseSplitService.onDelete(expense);
         expenseRepository.delete(expense);
-        log.info("Despesa removida id={} por user={}", id, currentUser.getEmail());
+        eventPublisher.publishEvent(ExpenseChangedEvent.deleted(expense));
+        log.info("Despesa removida id={} por user={}", id, authenticatedEmail);
     }
 
-    private Expense findOwnedExpense(Long id, User owner) {
-        Expense expense = findEntityById(id);
-        validateGroupOwnership(expense.getGroup(), owner);
-        return expense;
+    private void validateFilter(ExpenseFilterDTO filter) {
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new BusinessException("A data inicial deve ser anterior ou igual à data final.");
+        }
+        if (filter.minAmount() != null && filter.maxAmount() != null
+                && filter.minAmount().compareTo(filter.maxAmount()) > 0) {
+            throw new BusinessException("O valor mínimo deve ser menor ou igual ao valor máximo.");
+        }
     }
 
-    private Group findOwnedGroup(Long groupId, User owner) {
-        Group group = findGroup(groupId);
-        validateGroupOwnership(group, owner);
-        return group;
+    // Para despesas montadas pelo sistema (recorrências): sem validação por usuário, mas com rollup e eventos
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Expense> saveGenerated(List<Expense> expenses) {
+        return persistAll(expenses);
     }
 
-    private Group findGroup(Long id) {
-        return groupRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Grupo não encontrado para o id: " + id));
+    private List<Expense> persistAll(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return List.of();
+        }
+        List<Expense> saved = expenseRepository.saveAll(expenses);
+        expenseRepository.flush();
+        expenseRollupService.addAll(saved);
+        saved.forEach(expense -> eventPublisher.publishEvent(ExpenseChangedEvent.saved(expense)));
+        return saved;
     }
 
-    private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
-    }
+    private String validateBatchItem(ExpenseCreateDTO dto, Map<Long, Group> groups, User owner) {
+        if (dto == null) {
+            return "Item vazio.";
+        }
+
+        Set<ConstraintViolation<ExpenseCreateDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
 
-    private void validateGroupOwnership(Group group, User owner) {
+        Group group = groups.get(dto.groupId());
+        if (group == null) {
+            return "Grupo não encontrado para o id: " + dto.groupId();
+        }
         if (group.getOwner() == null || !group.getOwner().getId().equals(owner.getId())) {
-            throw new AccessDeniedException("Usuário não possui acesso às despesas do grupo solicitado.");
+            return "Usuário não possui acesso às despesas do grupo solicitado.";
+        }
+        return null;
+    }
+
+    // Autoriza e carrega no mesmo select; o existsById só roda no caminho de falha, para separar 403 de 404
+    private Expense findOwnedExpense(Long id, String ownerEmail) {
+        return expenseRepository.findOwnedById(id, ownerEmail)
+                .orElseThrow(() -> expenseAccessFailure(id));
+    }
+
+    // Com o índice de donos quente o grupo vira só uma referência; o banco só é consultado quando ele não sabe
+    private Group findOwnedGroup(Long groupId, String ownerEmail) {
+        return switch (ownershipIndex.check(groupId, ownerEmail)) {
+            case OWNER -> groupRepository.getReferenceById(groupId);
+            case OTHER_OWNER -> throw groupAccessDenied();
+            case UNKNOWN -> groupRepository.findOwnedById(groupId, ownerEmail)
+                    .orElseThrow(() -> groupAccessFailure(groupId));
+        };
+    }
+
+    private void validateOwnedGroup(Long groupId, String ownerEmail) {
+        switch (ownershipIndex.check(groupId, ownerEmail)) {
+            case OWNER -> {
+            }
+            case OTHER_OWNER -> throw groupAccessDenied();
+            case UNKNOWN -> {
+                if (!groupRepository.existsByIdAndOwner_Email(groupId, ownerEmail)) {
+                    throw groupAccessFailure(groupId);
+                }
+            }
+        }
+    }
+
+    private RuntimeException expenseAccessFailure(Long id) {
+        if (expenseRepository.existsById(id)) {
+            return new AccessDeniedException("Usuário não possui acesso às despesas do grupo solicitado.");
+        }
+        return new ResourceNotFoundException("Despesa não encontrada para o id: " + id);
+    }
+
+    private RuntimeException groupAccessFailure(Long groupId) {
+        if (groupRepository.existsById(groupId)) {
+            return groupAccessDenied();
+        }
+        return new ResourceNotFoundException("Grupo não encontrado para o id: " + groupId);
+    }
+
+    private AccessDeniedException groupAccessDenied() {
+        return new AccessDeniedException("Usuário não possui acesso às despesas do grupo solicitado.");
+    }
+
+    // Id vem do cache; a referência só vira select se algum atributo além do id for lido
+    private User findUserByEmail(String email) {
+        Long userId = userLookupCache.findIdByEmail(email);
+        if (userId == null) {
+            throw new ResourceNotFoundException("Usuário autenticado não encontrado.");
         }
+        return userRepository.getReferenceById(userId);
     }
 
-    private Expense findEntityById(Long id) {
-        return expenseRepository.findById(id)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Despesa não encontrada para o id: " + id));
+    // Busca um registro a mais para saber se existe próxima página sem precisar de count(*)
+    private Limit sliceLimit(int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_SLICE_SIZE);
+        return Limit.of(pageSize + 1);
+    }
+
+    private ExpenseSliceDTO toSliceDTO(List<ExpenseResponseDTO> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<ExpenseResponseDTO> page = hasNext ? List.copyOf(rows.subList(0, pageSize)) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ExpenseResponseDTO last = page.get(page.size() - 1);
+            nextCursor = new ExpenseCursor(last.date(), last.id()).encode();
+        }
+
+        return new ExpenseSliceDTO(page, pageSize, hasNext, nextCursor);
     }
 
     private ExpenseResponseDTO toResponseDTO(Expense expense) {
@@ -143,7 +392,8 @@ public class ExpenseService {
                 expense.getGroup() != null ? expense.getGroup().getId() : null,
                 expense.getGroup() != null ? expense.getGroup().getName() : null,
                 expense.getCreatedBy() != null ? expense.getCreatedBy().getId() : null,
-                expense.getCreatedBy() != null ? expense.getCreatedBy().getName() : null
+                expense.getCreatedBy() != null ? expense.getCreatedBy().getName() : null,
+                expense.getVersion()
         );
     }
 }
@@ -0,0 +1,220 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseShareDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSplitDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSplitResponseDTO;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.ExpenseShare;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.ExpenseShareRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Divisão de uma despesa entre membros do grupo: quem pagou e o peso de cada participante.
+ * Toda mudança (divisão, valor da despesa, remoção) vira um delta de saldo por membro,
+ * aplicado na mesma transação.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExpenseSplitService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseShareRepository shareRepository;
+    private final UserRepository userRepository;
+    private final GroupMemberService groupMemberService;
+
+    @Transactional
+    public ExpenseSplitResponseDTO split(Long expenseId, ExpenseSplitDTO dto, String authenticatedEmail) {
+        log.debug("Dividindo despesa id={} pagador={} participantes={} user={}",
+                expenseId, dto.paidByUserId(), dto.shares().size(), authenticatedEmail);
+        User currentUser = findUserByEmail(authenticatedEmail);
+        Expense expense = findOwnedExpense(expenseId, currentUser);
+        Long groupId = expense.getGroup().getId();
+
+        List<ExpenseShareDTO> shares = dto.shares().stream()
+                .sorted(Comparator.comparing(ExpenseShareDTO::userId))
+                .toList();
+        Set<Long> involved = new HashSet<>();
+        for (ExpenseShareDTO share : shares) {
+            if (!involved.add(share.userId())) {
+                throw new BusinessException("Um membro só pode aparecer uma vez na divisão.");
+            }
+        }
+        involved.add(dto.paidByUserId());
+        groupMemberService.validateMembers(groupId, involved);
+
+        Map<Long, Long> deltas = new TreeMap<>();
+        if (expense.getPaidBy() != null) {
+            reverse(expense, deltas);
+        }
+
+        long cents = toCents(expense.getAmount());
+        long[] parts = allocate(cents, shares.stream().mapToInt(ExpenseSplitService::weightOf).toArray());
+        List<ExpenseShare> entities = new ArrayList<>(shares.size());
+        for (int i = 0; i < shares.size(); i++) {
+            ExpenseShareDTO share = shares.get(i);
+            entities.add(ExpenseShare.builder()
+                    .expense(expense)
+                    .user(userRepository.getReferenceById(share.userId()))
+                    .weight(weightOf(share))
+                    .amount(fromCents(parts[i]))
+                    .build());
+            deltas.merge(share.userId(), -parts[i], Long::sum);
+        }
+        deltas.merge(dto.paidByUserId(), cents, Long::sum);
+
+        expense.setPaidBy(userRepository.getReferenceById(dto.paidByUserId()));
+        shareRepository.saveAll(entities);
+        groupMemberService.applyBalanceDeltas(groupId, deltas);
+
+        log.info("Despesa id={} dividida entre {} membros por user={}", expenseId, shares.size(), currentUser.getEmail());
+        return toResponseDTO(expense);
+    }
+
+    public ExpenseSplitResponseDTO findSplit(Long expenseId, String authenticatedEmail) {
+        log.debug("Buscando divisão da despesa id={} user={}", expenseId, authenticatedEmail);
+        User currentUser = findUserByEmail(authenticatedEmail);
+        Expense expense = findExpense(expenseId);
+        groupMemberService.validateAccess(expense.getGroup(), currentUser);
+        return toResponseDTO(expense);
+    }
+
+    @Transactional
+    public void removeSplit(Long expenseId, String authenticatedEmail) {
+        log.debug("Removendo divisão da despesa id={} user={}", expenseId, authenticatedEmail);
+        User currentUser = findUserByEmail(authenticatedEmail);
+        Expense expense = findOwnedExpense(expenseId, currentUser);
+        if (expense.getPaidBy() == null) {
+            return;
+        }
+
+        Map<Long, Long> deltas = new TreeMap<>();
+        reverse(expense, deltas);
+        expense.setPaidBy(null);
+        groupMemberService.applyBalanceDeltas(expense.getGroup().getId(), deltas);
+        log.info("Divisão da despesa id={} removida por user={}", expenseId, currentUser.getEmail());
+    }
+
+    // Chamado pelo ExpenseService quando o valor muda: os pesos ficam, as partes são recalculadas
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onAmountChanged(Expense expense, BigDecimal previousAmount) {
+        if (expense.getPaidBy() == null || expense.getAmount().compareTo(previousAmount) == 0) {
+            return;
+        }
+
+        List<ExpenseShare> shares = shareRepository.findByExpenseId(expense.getId());
+        long cents = toCents(expense.getAmount());
+        long[] parts = allocate(cents, shares.stream().mapToInt(ExpenseShare::getWeight).toArray());
+
+        Map<Long, Long> deltas = new TreeMap<>();
+        deltas.merge(expense.getPaidBy().getId(), cents - toCents(previousAmount), Long::sum);
+        for (int i = 0; i < shares.size(); i++) {
+            ExpenseShare share = shares.get(i);
+            deltas.merge(share.getUser().getId(), toCents(share.getAmount()) - parts[i], Long::sum);
+            share.setAmount(fromCents(parts[i]));
+        }
+        groupMemberService.applyBalanceDeltas(expense.getGroup().getId(), deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDelete(Expense expense) {
+        if (expense.getPaidBy() == null) {
+            return;
+        }
+        Map<Long, Long> deltas = new TreeMap<>();
+        reverse(expense, deltas);
+        groupMemberService.applyBalanceDeltas(expense.getGroup().getId(), deltas);
+    }
+
+    /**
+     * Reparte {@code amountCents} proporcionalmente aos pesos. Os centavos que sobram do arredondamento
+     * vão, um a um, para os primeiros participantes (ordem de user_id), então a soma fecha exatamente
+     * e o resultado é determinístico.
+     */
+    static long[] allocate(long amountCents, int[] weights) {
+        long totalWeight = 0;
+        for (int weight : weights) {
+            totalWeight += weight;
+        }
+
+        long[] parts = new long[weights.length];
+        long assigned = 0;
+        for (int i = 0; i < weights.length; i++) {
+            parts[i] = amountCents * weights[i] / totalWeight;
+            assigned += parts[i];
+        }
+        for (int i = 0; assigned < amountCents; i++) {
+            parts[i]++;
+            assigned++;
+        }
+        return parts;
+    }
+
+    // Desfaz a divisão atual no mapa de deltas e apaga as partes
+    private void reverse(Expense expense, Map<Long, Long> deltas) {
+        deltas.merge(expense.getPaidBy().getId(), -toCents(expense.getAmount()), Long::sum);
+        for (ExpenseShare share : shareRepository.findByExpenseId(expense.getId())) {
+            deltas.merge(share.getUser().getId(), toCents(share.getAmount()), Long::sum);
+        }
+        shareRepository.deleteByExpenseId(expense.getId());
+    }
+
+    private ExpenseSplitResponseDTO toResponseDTO(Expense expense) {
+        return new ExpenseSplitResponseDTO(
+                expense.getId(),
+                expense.getAmount(),
+                expense.getPaidBy() != null ? expense.getPaidBy().getId() : null,
+                expense.getPaidBy() != null ? shareRepository.findResponsesByExpenseId(expense.getId()) : List.of()
+        );
+    }
+
+    private Expense findOwnedExpense(Long id, User owner) {
+        Expense expense = findExpense(id);
+        if (expense.getGroup().getOwner() == null || !expense.getGroup().getOwner().getId().equals(owner.getId())) {
+            throw new AccessDeniedException("Usuário não possui acesso às despesas do grupo solicitado.");
+        }
+        return expense;
+    }
+
+    private Expense findExpense(Long id) {
+        return expenseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Despesa não encontrada para o id: " + id));
+    }
+
+    private User findUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+    }
+
+    private static int weightOf(ExpenseShareDTO share) {
+        return share.weight() != null ? share.weight() : 1;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,98 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.repositories.ExpenseMonthlyRollupRepository;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExpenseSummaryService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+
+    public List<ExpenseCategorySummaryDTO> summarizeByCategory(LocalDate from, LocalDate to, Long groupId,
+                                                               String authenticatedEmail) {
+        log.debug("Resumo por categoria from={} to={} groupId={} user={}", from, to, groupId, authenticatedEmail);
+        validateRange(from, to);
+
+        if (groupId != null) {
+            Group group = findOwnedGroup(groupId, findUserByEmail(authenticatedEmail));
+            return coversWholeMonths(from, to)
+                    ? rollupRepository.summarizeByCategoryForGroup(group.getId(), from, to)
+                    : expenseRepository.summarizeByCategoryForGroup(group.getId(), from, to);
+        }
+        return coversWholeMonths(from, to)
+                ? rollupRepository.summarizeByCategoryForOwner(authenticatedEmail, from, to)
+                : expenseRepository.summarizeByCategoryForOwner(authenticatedEmail, from, to);
+    }
+
+    public List<ExpenseMonthlySummaryDTO> summarizeByMonth(LocalDate from, LocalDate to, Long groupId,
+                                                           String authenticatedEmail) {
+        log.debug("Resumo mensal from={} to={} groupId={} user={}", from, to, groupId, authenticatedEmail);
+        validateRange(from, to);
+
+        if (groupId != null) {
+            Group group = findOwnedGroup(groupId, findUserByEmail(authenticatedEmail));
+            return coversWholeMonths(from, to)
+                    ? rollupRepository.summarizeByMonthForGroup(group.getId(), from, to)
+                    : expenseRepository.summarizeByMonthForGroup(group.getId(), from, to);
+        }
+        return coversWholeMonths(from, to)
+                ? rollupRepository.summarizeByMonthForOwner(authenticatedEmail, from, to)
+                : expenseRepository.summarizeByMonthForOwner(authenticatedEmail, from, to);
+    }
+
+    public List<ExpenseGroupSummaryDTO> summarizeByGroup(LocalDate from, LocalDate to, String authenticatedEmail) {
+        log.debug("Resumo por grupo from={} to={} user={}", from, to, authenticatedEmail);
+        validateRange(from, to);
+        return coversWholeMonths(from, to)
+                ? rollupRepository.summarizeByGroupForOwner(authenticatedEmail, from, to)
+                : expenseRepository.summarizeByGroupForOwner(authenticatedEmail, from, to);
+    }
+
+    // Períodos de meses inteiros são atendidos pelo rollup mensal; os demais varrem as despesas
+    private boolean coversWholeMonths(LocalDate from, LocalDate to) {
+        return from.getDayOfMonth() == 1 && to.getDayOfMonth() == to.lengthOfMonth();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("A data inicial deve ser anterior ou igual à data final.");
+        }
+    }
+
+    private Group findOwnedGroup(Long groupId, User owner) {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Grupo não encontrado para o id: " + groupId));
+        if (group.getOwner() == null || !group.getOwner().getId().equals(owner.getId())) {
+            throw new AccessDeniedException("Usuário não possui acesso às despesas do grupo solicitado.");
+        }
+        return group;
+    }
+
+    private User findUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+    }
+}
@@ -0,0 +1,205 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.ExpenseReportProperties;
+import com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseYearlyReportDTO;
+import com.eduardomoia.despesas.dtos.group.GroupResponseDTO;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.exceptions.ServiceUnavailableException;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relatório anual de um dono dividido em tarefas independentes por (grupo, mês). Cada tarefa roda
+ * numa transação somente leitura própria no pool de relatórios e devolve um agregado parcial;
+ * os parciais são somados no final, então a ordem de execução não altera o resultado.
+ * O prazo do relatório vale também para as transações das tarefas: a consulta de uma tarefa que
+ * ainda roda quando o prazo vence é abortada pelo timeout dela, e a conexão volta ao pool.
+ */
+@Slf4j
+@Service
+public class ExpenseYearlyReportService {
+
+    // Faixa aceita pelo relatório; fora dela o YearMonth.of falharia (ou o ano não faz sentido para despesas)
+    static final int MIN_YEAR = 1900;
+    static final int MAX_YEAR = 9999;
+
+    private final ExpenseRepository expenseRepository;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final ExpenseReportProperties properties;
+    private final ForkJoinPool expenseReportPool;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExpenseYearlyReportService(ExpenseRepository expenseRepository,
+                                      GroupRepository groupRepository,
+                                      UserRepository userRepository,
+                                      ExpenseReportProperties properties,
+                                      ForkJoinPool expenseReportPool,
+                                      PlatformTransactionManager transactionManager) {
+        this.expenseRepository = expenseRepository;
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.expenseReportPool = expenseReportPool;
+        this.transactionManager = transactionManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public ExpenseYearlyReportDTO report(int year, String authenticatedEmail) {
+        return report(year, authenticatedEmail, expenseReportPool);
+    }
+
+    ExpenseYearlyReportDTO report(int year, String authenticatedEmail, ForkJoinPool pool) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new BusinessException("O ano deve estar entre " + MIN_YEAR + " e " + MAX_YEAR + ".");
+        }
+        log.debug("Relatório anual user={} year={} parallelism={}", authenticatedEmail, year, pool.getParallelism());
+        long started = System.currentTimeMillis();
+        long deadline = System.nanoTime() + properties.timeout().toNanos();
+
+        List<GroupResponseDTO> groups = readOnlyTransaction.execute(status -> {
+            userRepository.findIdByEmail(authenticatedEmail)
+                    .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+            return groupRepository.findResponsesByOwnerEmail(authenticatedEmail, Pageable.unpaged()).getContent();
+        });
+
+        List<Callable<PartialAggregate>> tasks = new ArrayList<>(groups.size() * 12);
+        for (GroupResponseDTO group : groups) {
+            for (int month = 1; month <= 12; month++) {
+                YearMonth period = YearMonth.of(year, month);
+                tasks.add(() -> taskTransaction(deadline).execute(status -> new PartialAggregate(
+                        group.id(),
+                        period,
+                        expenseRepository.summarizeByCategoryForGroup(group.id(), period.atDay(1), period.atEndOfMonth())
+                )));
+            }
+        }
+
+        YearlyAggregate aggregate = new YearlyAggregate(groups);
+        for (PartialAggregate partial : invokeAll(pool, tasks, deadline)) {
+            aggregate.merge(partial);
+        }
+
+        log.info("Relatório anual user={} year={} tarefas={} parallelism={} em {} ms",
+                authenticatedEmail, year, tasks.size(), pool.getParallelism(), System.currentTimeMillis() - started);
+        return aggregate.toDTO(year);
+    }
+
+    // Timeout (em segundos, arredondado para cima) igual ao que falta do prazo quando a tarefa começa
+    private TransactionTemplate taskTransaction(long deadline) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        transaction.setTimeout((int) Math.max(1, (remainingMillis + 999) / 1000));
+        return transaction;
+    }
+
+    private List<PartialAggregate> invokeAll(ForkJoinPool pool, List<Callable<PartialAggregate>> tasks, long deadline) {
+        List<Future<PartialAggregate>> futures = tasks.stream().<Future<PartialAggregate>>map(pool::submit).toList();
+
+        List<PartialAggregate> partials = new ArrayList<>(futures.size());
+        try {
+            for (Future<PartialAggregate> future : futures) {
+                partials.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return partials;
+        } catch (TimeoutException e) {
+            discardPending(futures);
+            throw new ServiceUnavailableException("Relatório anual demorou demais. Tente novamente em instantes.",
+                    properties.timeout());
+        } catch (InterruptedException e) {
+            discardPending(futures);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Relatório anual interrompido.", e);
+        } catch (ExecutionException e) {
+            discardPending(futures);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Só as tarefas que ainda não começaram deixam de rodar: ForkJoinTask.cancel não interrompe a que já roda,
+    // que termina sozinha ou pelo timeout da própria transação
+    private static void discardPending(List<Future<PartialAggregate>> futures) {
+        futures.forEach(future -> future.cancel(false));
+    }
+
+    private record PartialAggregate(Long groupId, YearMonth month, List<ExpenseCategorySummaryDTO> categories) {
+    }
+
+    // Soma dos parciais; usado só pela thread que faz o merge
+    private static final class YearlyAggregate {
+        private final Map<Long, String> groupNames = new TreeMap<>();
+        private final Map<Long, Totals> byGroup = new TreeMap<>();
+        private final Map<YearMonth, Totals> byMonth = new TreeMap<>();
+        private final Map<ExpenseCategory, Totals> byCategory = new EnumMap<>(ExpenseCategory.class);
+        private final Totals overall = new Totals();
+
+        private YearlyAggregate(List<GroupResponseDTO> groups) {
+            groups.forEach(group -> groupNames.put(group.id(), group.name()));
+        }
+
+        private void merge(PartialAggregate partial) {
+            for (ExpenseCategorySummaryDTO row : partial.categories()) {
+                byGroup.computeIfAbsent(partial.groupId(), id -> new Totals()).add(row.total(), row.count());
+                byMonth.computeIfAbsent(partial.month(), m -> new Totals()).add(row.total(), row.count());
+                byCategory.computeIfAbsent(row.category(), c -> new Totals()).add(row.total(), row.count());
+                overall.add(row.total(), row.count());
+            }
+        }
+
+        private ExpenseYearlyReportDTO toDTO(int year) {
+            List<ExpenseMonthlySummaryDTO> months = byMonth.entrySet().stream()
+                    .map(e -> new ExpenseMonthlySummaryDTO(e.getKey().getYear(), e.getKey().getMonthValue(),
+                            e.getValue().total, e.getValue().count))
+                    .toList();
+            List<ExpenseGroupSummaryDTO> groups = byGroup.entrySet().stream()
+                    .map(e -> new ExpenseGroupSummaryDTO(e.getKey(), groupNames.get(e.getKey()),
+                            e.getValue().total, e.getValue().count))
+                    .toList();
+            List<ExpenseCategorySummaryDTO> categories = byCategory.entrySet().stream()
+                    .map(e -> new ExpenseCategorySummaryDTO(e.getKey(), e.getValue().total, e.getValue().count))
+                    .toList();
+            return new ExpenseYearlyReportDTO(year, overall.total, overall.count, months, groups, categories);
+        }
+    }
+
+    private static final class Totals {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        private void add(BigDecimal amount, long rows) {
+            total = total.add(amount);
+            count += rows;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.eduardomoia.despesas.services;
+
+import java.math.BigDecimal;
+
+// Publicado pelo GroupService quando o orçamento muda ou o grupo é removido (monthlyBudget nulo)
+public record GroupBudgetChangedEvent(
+        Long groupId,
+        BigDecimal monthlyBudget
+) {}
@@ -0,0 +1,168 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.group.BudgetStatus;
+import com.eduardomoia.despesas.dtos.group.GroupBudgetStatusDTO;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.ExpenseRollupProjection;
+import com.eduardomoia.despesas.repositories.GroupBudgetProjection;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gasto por (grupo, mês) em centavos, mantido em memória para que o estado do orçamento
+ * não dependa de somar o mês a cada leitura. Semeado do banco antes de o servidor web subir e atualizado pelas
+ * mutações confirmadas; os alertas saem do próprio addAndGet, sem lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GroupBudgetTracker implements SmartInitializingSingleton {
+
+    static final int WARNING_PERCENT = 80;
+    static final int EXCEEDED_PERCENT = 100;
+    static final String ALERTS_METRIC = "despesas.budget.alerts";
+
+    private static final int[] THRESHOLDS = {WARNING_PERCENT, EXCEEDED_PERCENT};
+
+    private final ExpenseRepository expenseRepository;
+    private final GroupRepository groupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<MonthKey, AtomicLong> totals = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> budgets = new ConcurrentHashMap<>();
+
+    // Chamado depois de criados todos os singletons e antes do início dos lifecycles, entre eles o servidor web:
+    // nenhuma requisição (nem tarefa agendada) grava despesa durante a carga, então não há delta a perder ou duplicar.
+    // No ApplicationReadyEvent seria tarde: o Tomcat já estaria atendendo
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed();
+    }
+
+    void seed() {
+        long started = System.currentTimeMillis();
+        totals.clear();
+        budgets.clear();
+        for (ExpenseRollupProjection row : expenseRepository.aggregateMonthlyRollups()) {
+            counter(row.groupId(), YearMonth.from(row.periodStart())).addAndGet(toCents(row.total()));
+        }
+        for (GroupBudgetProjection row : groupRepository.findAllBudgets()) {
+            budgets.put(row.groupId(), toCents(row.monthlyBudget()));
+        }
+        log.info("Totais de orçamento carregados: {} meses de {} grupos com orçamento em {} ms",
+                totals.size(), budgets.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        long cents = toCents(event.amount());
+        if (event.type() == ExpenseChangedEvent.Type.DELETED) {
+            apply(event.groupId(), event.date(), -cents);
+        } else if (event.previousAmount() == null) {
+            apply(event.groupId(), event.date(), cents);
+        } else if (YearMonth.from(event.previousDate()).equals(YearMonth.from(event.date()))) {
+            // Mesmo mês: um único delta, para não cruzar o limite para baixo e para cima de novo
+            apply(event.groupId(), event.date(), cents - toCents(event.previousAmount()));
+        } else {
+            apply(event.groupId(), event.previousDate(), -toCents(event.previousAmount()));
+            apply(event.groupId(), event.date(), cents);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBudgetChanged(GroupBudgetChangedEvent event) {
+        if (event.monthlyBudget() == null) {
+            budgets.remove(event.groupId());
+        } else {
+            budgets.put(event.groupId(), toCents(event.monthlyBudget()));
+        }
+    }
+
+    void apply(long groupId, LocalDate date, long deltaCents) {
+        if (deltaCents == 0) {
+            return;
+        }
+        YearMonth month = YearMonth.from(date);
+        long after = counter(groupId, month).addAndGet(deltaCents);
+        Long budget = budgets.get(groupId);
+        if (budget != null && deltaCents > 0) {
+            notifyCrossings(groupId, month, after - deltaCents, after, budget);
+        }
+    }
+
+    // O orçamento vem da entidade (fonte da verdade); daqui sai só o gasto acumulado
+    public GroupBudgetStatusDTO status(Long groupId, BigDecimal monthlyBudget, YearMonth month) {
+        long spent = spentCents(groupId, month);
+        if (monthlyBudget == null) {
+            return new GroupBudgetStatusDTO(groupId, month, null, fromCents(spent), null, null, BudgetStatus.NO_BUDGET);
+        }
+        long budget = toCents(monthlyBudget);
+        BigDecimal percentUsed = BigDecimal.valueOf(spent)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(BigDecimal.valueOf(budget), 2, RoundingMode.HALF_UP);
+        return new GroupBudgetStatusDTO(groupId, month, fromCents(budget), fromCents(spent),
+                fromCents(budget - spent), percentUsed, classify(spent, budget));
+    }
+
+    long spentCents(long groupId, YearMonth month) {
+        AtomicLong total = totals.get(new MonthKey(groupId, month));
+        return total != null ? total.get() : 0L;
+    }
+
+    static BudgetStatus classify(long spentCents, long budgetCents) {
+        if (spentCents >= thresholdCents(budgetCents, EXCEEDED_PERCENT)) {
+            return BudgetStatus.EXCEEDED;
+        }
+        if (spentCents >= thresholdCents(budgetCents, WARNING_PERCENT)) {
+            return BudgetStatus.WARNING;
+        }
+        return BudgetStatus.OK;
+    }
+
+    // Cada addAndGet devolve um par (antes, depois) exclusivo, então cada travessia é vista por uma única thread
+    private void notifyCrossings(long groupId, YearMonth month, long before, long after, long budget) {
+        for (int percent : THRESHOLDS) {
+            long limit = thresholdCents(budget, percent);
+            if (before < limit && after >= limit) {
+                log.warn("Grupo {} atingiu {}% do orçamento de {}: gasto={} orçamento={}",
+                        groupId, percent, month, fromCents(after), fromCents(budget));
+                meterRegistry.counter(ALERTS_METRIC, "threshold", String.valueOf(percent)).increment();
+                eventPublisher.publishEvent(new BudgetThresholdCrossedEvent(
+                        groupId, month, percent, fromCents(after), fromCents(budget)));
+            }
+        }
+    }
+
+    private AtomicLong counter(long groupId, YearMonth month) {
+        return totals.computeIfAbsent(new MonthKey(groupId, month), key -> new AtomicLong());
+    }
+
+    private static long thresholdCents(long budgetCents, int percent) {
+        return (budgetCents * percent + 99) / 100;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record MonthKey(long groupId, YearMonth month) {
+    }
+}
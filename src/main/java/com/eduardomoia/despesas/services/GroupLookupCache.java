@@ -0,0 +1,126 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.CacheConfig;
+import com.eduardomoia.despesas.config.LookupCacheProperties;
+import com.eduardomoia.despesas.dtos.group.GroupResponseDTO;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grupos por id e páginas de grupos por dono. As páginas ficam agrupadas numa entrada por e-mail
+ * do dono, para que qualquer alteração nos grupos dele descarte todas as páginas de uma vez,
+ * sem tocar nas dos outros donos. As páginas de cada dono também têm limite, senão variar
+ * page/size/sort faria a entrada crescer sem fim, por fora do limite de donos.
+ * <p>
+ * Puts e evicts acontecem depois do commit, como no restante do CacheConfig. Uma leitura que
+ * começou antes de uma alteração pode confirmar depois do evict dela; por isso cada evict avança
+ * uma geração, e o valor lido sob uma geração anterior é descartado em vez de ficar no cache até o TTL.
+ */
+@Component
+public class GroupLookupCache {
+
+    private final GroupRepository groupRepository;
+    private final Cache groups;
+    private final Cache pages;
+    private final long pagesPerOwner;
+    private final AtomicLong generation = new AtomicLong();
+
+    public GroupLookupCache(GroupRepository groupRepository, CacheManager cacheManager,
+                            LookupCacheProperties properties) {
+        this.groupRepository = groupRepository;
+        // Os caches de origem: o momento dos puts e evicts é controlado aqui, junto com a geração
+        this.groups = targetOf(cacheManager.getCache(CacheConfig.GROUPS));
+        this.pages = targetOf(cacheManager.getCache(CacheConfig.GROUP_PAGES));
+        this.pagesPerOwner = properties.groupPagesPerOwner();
+    }
+
+    public GroupResponseDTO findResponse(Long id) {
+        GroupResponseDTO cached = groups.get(id, GroupResponseDTO.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        long readAt = generation.get();
+        GroupResponseDTO group = groupRepository.findResponseById(id).orElse(null);
+        if (group != null) {
+            afterCommit(() -> putIfCurrent(readAt, () -> groups.putIfAbsent(id, group), () -> groups.evict(id)));
+        }
+        return group;
+    }
+
+    public Page<GroupResponseDTO> findPage(String ownerEmail, Pageable pageable) {
+        ConcurrentMap<Pageable, Page<GroupResponseDTO>> ownerPages = pages.get(ownerEmail, this::newOwnerPages);
+        Page<GroupResponseDTO> cached = ownerPages.get(pageable);
+        if (cached != null) {
+            return cached;
+        }
+
+        long readAt = generation.get();
+        Page<GroupResponseDTO> page = groupRepository.findResponsesByOwnerEmail(ownerEmail, pageable);
+        afterCommit(() -> putIfCurrent(readAt, () -> ownerPages.putIfAbsent(pageable, page),
+                () -> ownerPages.remove(pageable, page)));
+        return page;
+    }
+
+    public void evictGroup(Long id) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            groups.evict(id);
+        });
+    }
+
+    public void evictOwner(String ownerEmail) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            pages.evict(ownerEmail);
+        });
+    }
+
+    // Put primeiro, conferência depois: se a geração ainda é a da leitura, o evict concorrente (que avança
+    // a geração antes de despejar) ainda vai remover o valor; se já mudou, o próprio leitor o desfaz
+    private void putIfCurrent(long readAt, Runnable put, Runnable undo) {
+        put.run();
+        if (generation.get() != readAt) {
+            undo.run();
+        }
+    }
+
+    // Despejo na própria thread: o limite vale a cada put, sem esperar a manutenção assíncrona do Caffeine
+    private ConcurrentMap<Pageable, Page<GroupResponseDTO>> newOwnerPages() {
+        return Caffeine.newBuilder()
+                .maximumSize(pagesPerOwner)
+                .executor(Runnable::run)
+                .<Pageable, Page<GroupResponseDTO>>build()
+                .asMap();
+    }
+
+    private static Cache targetOf(Cache cache) {
+        Objects.requireNonNull(cache);
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
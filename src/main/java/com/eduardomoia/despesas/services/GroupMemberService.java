@@ -0,0 +1,236 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.group.GroupBalancesDTO;
+import com.eduardomoia.despesas.dtos.group.GroupMemberAddDTO;
+import com.eduardomoia.despesas.dtos.group.GroupMemberDTO;
+import com.eduardomoia.despesas.dtos.group.GroupSettlementCreateDTO;
+import com.eduardomoia.despesas.dtos.group.SettlementTransferDTO;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.GroupMember;
+import com.eduardomoia.despesas.entities.GroupSettlement;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.ExpenseShareRepository;
+import com.eduardomoia.despesas.repositories.GroupMemberRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.GroupSettlementRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Membros de grupos compartilhados e seus saldos líquidos. Os saldos são mantidos por incrementos
+ * (divisão de despesas e pagamentos registrados), então consultar o acerto custa um select dos
+ * membros, independente do tamanho do histórico.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class GroupMemberService {
+
+    private final GroupRepository groupRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final GroupSettlementRepository settlementRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final UserRepository userRepository;
+
+    @Transactional
+    public GroupMemberDTO addMember(Long groupId, GroupMemberAddDTO dto, String authenticatedEmail) {
+        log.debug("Adicionando membro email={} ao grupo id={} user={}", dto.email(), groupId, authenticatedEmail);
+        User owner = findUserByEmail(authenticatedEmail);
+        Group group = findOwnedGroup(groupId, owner);
+
+        User user = userRepository.findByEmail(dto.email())
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado para o email: " + dto.email()));
+        if (groupMemberRepository.existsByGroup_IdAndUser_Id(groupId, user.getId())) {
+            throw new BusinessException("Usuário já é membro do grupo.");
+        }
+
+        groupMemberRepository.save(newMember(group, user));
+        log.info("Membro userId={} adicionado ao grupo id={} por user={}", user.getId(), groupId, owner.getEmail());
+        return new GroupMemberDTO(user.getId(), user.getName(), user.getEmail(), BigDecimal.ZERO, false);
+    }
+
+    public List<GroupMemberDTO> findMembers(Long groupId, String authenticatedEmail) {
+        log.debug("Listando membros do grupo id={} user={}", groupId, authenticatedEmail);
+        validateAccess(findGroup(groupId), findUserByEmail(authenticatedEmail));
+        return groupMemberRepository.findMembers(groupId);
+    }
+
+    @Transactional
+    public void removeMember(Long groupId, Long userId, String authenticatedEmail) {
+        log.debug("Removendo membro userId={} do grupo id={} user={}", userId, groupId, authenticatedEmail);
+        User owner = findUserByEmail(authenticatedEmail);
+        Group group = findOwnedGroup(groupId, owner);
+
+        if (group.getOwner().getId().equals(userId)) {
+            throw new BusinessException("O dono do grupo não pode ser removido dos membros.");
+        }
+        GroupMember member = groupMemberRepository.findByGroup_IdAndUser_Id(groupId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Membro não encontrado no grupo: " + userId));
+        // O histórico de divisões referencia o membro; removê-lo deixaria saldos sem dono
+        if (member.getBalance().signum() != 0
+                || expenseShareRepository.existsInGroup(groupId, userId)
+                || expenseRepository.existsByGroup_IdAndPaidBy_Id(groupId, userId)) {
+            throw new BusinessException("Não é possível remover o membro pois ele participa de despesas do grupo.");
+        }
+
+        groupMemberRepository.delete(member);
+        log.info("Membro userId={} removido do grupo id={} por user={}", userId, groupId, owner.getEmail());
+    }
+
+    public GroupBalancesDTO balances(Long groupId, String authenticatedEmail) {
+        log.debug("Calculando saldos do grupo id={} user={}", groupId, authenticatedEmail);
+        validateAccess(findGroup(groupId), findUserByEmail(authenticatedEmail));
+        return buildBalances(groupId);
+    }
+
+    // Registra um pagamento entre membros; pode ser lançado pelo dono do grupo ou por quem pagou
+    @Transactional
+    public GroupBalancesDTO recordSettlement(Long groupId, GroupSettlementCreateDTO dto, String authenticatedEmail) {
+        log.debug("Registrando pagamento no grupo id={} from={} to={} user={}",
+                groupId, dto.fromUserId(), dto.toUserId(), authenticatedEmail);
+        User currentUser = findUserByEmail(authenticatedEmail);
+        Group group = findGroup(groupId);
+        if (!isOwner(group, currentUser) && !currentUser.getId().equals(dto.fromUserId())) {
+            throw new AccessDeniedException("Usuário não possui acesso ao grupo solicitado.");
+        }
+        if (dto.fromUserId().equals(dto.toUserId())) {
+            throw new BusinessException("O pagamento deve ser entre membros diferentes.");
+        }
+        if (groupMemberRepository.findMemberIds(groupId, Set.of(dto.fromUserId(), dto.toUserId())).size() != 2) {
+            throw new BusinessException("O pagador e o recebedor devem ser membros do grupo.");
+        }
+
+        settlementRepository.save(GroupSettlement.builder()
+                .group(group)
+                .fromUser(userRepository.getReferenceById(dto.fromUserId()))
+                .toUser(userRepository.getReferenceById(dto.toUserId()))
+                .amount(dto.amount())
+                .createdAt(Instant.now())
+                .build());
+
+        long cents = toCents(dto.amount());
+        Map<Long, Long> deltas = new TreeMap<>();
+        deltas.put(dto.fromUserId(), cents);
+        deltas.put(dto.toUserId(), -cents);
+        applyBalanceDeltas(groupId, deltas);
+
+        log.info("Pagamento registrado no grupo id={} from={} to={} valor={}",
+                groupId, dto.fromUserId(), dto.toUserId(), dto.amount());
+        return buildBalances(groupId);
+    }
+
+    // Chamado dentro da transação que altera a divisão, para os saldos nunca divergirem dela.
+    // A ordem fixa de user_id (TreeMap) faz transações concorrentes travarem as linhas na mesma ordem
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyBalanceDeltas(Long groupId, Map<Long, Long> deltasInCents) {
+        new TreeMap<>(deltasInCents).forEach((userId, cents) -> {
+            if (cents != 0 && groupMemberRepository.addToBalance(groupId, userId, fromCents(cents)) == 0) {
+                throw new IllegalStateException("Membro userId=" + userId + " ausente do grupo id=" + groupId);
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addOwner(Group group) {
+        groupMemberRepository.save(newMember(group, group.getOwner()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void validateMembers(Long groupId, Set<Long> userIds) {
+        if (groupMemberRepository.findMemberIds(groupId, userIds).size() != userIds.size()) {
+            throw new BusinessException("O pagador e os participantes devem ser membros do grupo.");
+        }
+    }
+
+    public void validateAccess(Group group, User user) {
+        if (!isOwner(group, user) && !groupMemberRepository.existsByGroup_IdAndUser_Id(group.getId(), user.getId())) {
+            throw new AccessDeniedException("Usuário não possui acesso ao grupo solicitado.");
+        }
+    }
+
+    // Grupos anteriores aos membros ganham o dono como primeiro membro
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOwners() {
+        int inserted = groupMemberRepository.insertMissingOwners();
+        if (inserted > 0) {
+            log.info("{} donos de grupo registrados como membros", inserted);
+        }
+    }
+
+    private GroupBalancesDTO buildBalances(Long groupId) {
+        List<GroupMemberDTO> members = groupMemberRepository.findMembers(groupId);
+        Map<Long, Long> balances = new LinkedHashMap<>();
+        members.forEach(member -> balances.put(member.userId(), toCents(member.balance())));
+        Map<Long, GroupMemberDTO> byId = members.stream()
+                .collect(Collectors.toMap(GroupMemberDTO::userId, Function.identity()));
+
+        List<SettlementTransferDTO> transfers = SettlementCalculator.settle(balances).stream()
+                .map(transfer -> new SettlementTransferDTO(
+                        transfer.fromUserId(), byId.get(transfer.fromUserId()).name(),
+                        transfer.toUserId(), byId.get(transfer.toUserId()).name(),
+                        fromCents(transfer.cents())))
+                .toList();
+        return new GroupBalancesDTO(groupId, members, transfers);
+    }
+
+    private GroupMember newMember(Group group, User user) {
+        return GroupMember.builder()
+                .group(group)
+                .user(user)
+                .joinedAt(Instant.now())
+                .build();
+    }
+
+    private Group findOwnedGroup(Long groupId, User owner) {
+        Group group = findGroup(groupId);
+        if (!isOwner(group, owner)) {
+            throw new AccessDeniedException("Usuário não possui acesso ao grupo solicitado.");
+        }
+        return group;
+    }
+
+    private boolean isOwner(Group group, User user) {
+        return group.getOwner() != null && group.getOwner().getId().equals(user.getId());
+    }
+
+    private Group findGroup(Long id) {
+        return groupRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Grupo não encontrado para o id: " + id));
+    }
+
+    private User findUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
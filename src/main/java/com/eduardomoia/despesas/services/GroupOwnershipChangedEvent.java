@@ -0,0 +1,17 @@
+package com.eduardomoia.despesas.services;
+
+// Publicado pelo GroupService ao criar ou remover um grupo; o índice de donos só aplica após o commit
+public record GroupOwnershipChangedEvent(
+        Long groupId,
+        Long ownerId,
+        boolean removed
+) {
+
+    public static GroupOwnershipChangedEvent created(Long groupId, Long ownerId) {
+        return new GroupOwnershipChangedEvent(groupId, ownerId, false);
+    }
+
+    public static GroupOwnershipChangedEvent removed(Long groupId, Long ownerId) {
+        return new GroupOwnershipChangedEvent(groupId, ownerId, true);
+    }
+}
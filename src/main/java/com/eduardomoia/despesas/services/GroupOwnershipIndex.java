@@ -0,0 +1,245 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.OwnershipIndexProperties;
+import com.eduardomoia.despesas.repositories.GroupOwnershipProjection;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dono de cada grupo e grupos de cada dono, em memória, para autorizar sem ir ao banco.
+ * Os grupos de um dono ficam num long[] ordenado substituído a cada alteração (leitura sem lock,
+ * busca binária). A carga monta um índice novo à parte e o publica de uma vez; os eventos que
+ * chegam durante a carga são anotados e reaplicados sobre ele antes da troca. Enquanto nenhum
+ * índice foi publicado, ou para um grupo que ele ainda não conhece, a resposta é UNKNOWN e o
+ * chamador consulta o banco.
+ */
+@Slf4j
+@Component
+public class GroupOwnershipIndex {
+
+    static final String LOOKUPS_METRIC = "despesas.ownership.lookups";
+
+    private static final long[] EMPTY = new long[0];
+
+    public enum Ownership {
+        OWNER,
+        OTHER_OWNER,
+        UNKNOWN
+    }
+
+    private final GroupRepository groupRepository;
+    private final UserLookupCache userLookupCache;
+    private final OwnershipIndexProperties properties;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Escritores (eventos e a troca do índice) se alternam por este lock; leitores só leem "current"
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Index current;
+    // Não nulo enquanto há carga em andamento (ou nenhum índice publicado): eventos a reaplicar no índice novo
+    private List<GroupOwnershipChangedEvent> pending = new ArrayList<>();
+
+    public GroupOwnershipIndex(GroupRepository groupRepository, UserLookupCache userLookupCache,
+                               OwnershipIndexProperties properties, MeterRegistry meterRegistry) {
+        this.groupRepository = groupRepository;
+        this.userLookupCache = userLookupCache;
+        this.properties = properties;
+        this.hits = meterRegistry.counter(LOOKUPS_METRIC, "result", "hit");
+        this.misses = meterRegistry.counter(LOOKUPS_METRIC, "result", "miss");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    // O id do usuário só é resolvido quando o índice conhece o grupo; senão o chamador faria a consulta à toa.
+    // Uma única leitura de "current": dono e grupos do dono vêm sempre do mesmo índice
+    public Ownership check(Long groupId, String email) {
+        Index index = current;
+        Long ownerId = index != null ? index.ownerByGroup.get(groupId) : null;
+        if (ownerId == null) {
+            misses.increment();
+            return Ownership.UNKNOWN;
+        }
+        hits.increment();
+        Long userId = userLookupCache.findIdByEmail(email);
+        return userId != null && index.owns(userId, groupId) ? Ownership.OWNER : Ownership.OTHER_OWNER;
+    }
+
+    @TransactionalEventListener
+    public void onOwnershipChanged(GroupOwnershipChangedEvent event) {
+        writeLock.lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            Index index = current;
+            if (index != null) {
+                index.apply(event);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<String> findInconsistencies() {
+        Map<Long, Long> expected = new HashMap<>();
+        for (GroupOwnershipProjection row : groupRepository.findAllOwnerships()) {
+            expected.put(row.groupId(), row.ownerId());
+        }
+
+        Index index = current != null ? current : new Index();
+        List<String> inconsistencies = new ArrayList<>();
+        expected.forEach((groupId, ownerId) -> {
+            Long indexed = index.ownerByGroup.get(groupId);
+            if (!ownerId.equals(indexed) || !index.owns(ownerId, groupId)) {
+                inconsistencies.add("grupo " + groupId + " esperado=" + ownerId + " atual=" + indexed);
+            }
+        });
+        index.ownerByGroup.forEach((groupId, ownerId) -> {
+            if (!expected.containsKey(groupId)) {
+                inconsistencies.add("grupo " + groupId + " esperado=- atual=" + ownerId);
+            }
+        });
+        index.groupsByOwner.forEach((ownerId, groups) -> {
+            for (long groupId : groups) {
+                if (!ownerId.equals(expected.get(groupId))) {
+                    inconsistencies.add("dono " + ownerId + " com grupo " + groupId + " que não é dele");
+                }
+            }
+        });
+        return inconsistencies;
+    }
+
+    // Um grupo confirmado entre a leitura e o evento aparece como divergência; a reconstrução só custa uma carga
+    @Scheduled(cron = "${despesas.ownership.verify-cron:0 45 3 * * *}")
+    public void verify() {
+        List<String> inconsistencies = findInconsistencies();
+        if (inconsistencies.isEmpty()) {
+            log.debug("Índice de donos de grupos consistente");
+            return;
+        }
+
+        log.warn("Índice de donos de grupos inconsistente ({}): {}", inconsistencies.size(), inconsistencies);
+        if (properties.repairOnMismatch()) {
+            rebuild();
+        }
+    }
+
+    // O índice publicado continua atendendo durante a carga. Os eventos anotados desde antes da leitura são
+    // reaplicados no índice novo: um grupo removido depois da leitura não volta, um criado depois entra
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            writeLock.lock();
+            try {
+                if (pending == null) {
+                    pending = new ArrayList<>();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+
+            Index loaded = new Index();
+            Map<Long, List<Long>> byOwner = new HashMap<>();
+            for (GroupOwnershipProjection row : groupRepository.findAllOwnerships()) {
+                byOwner.computeIfAbsent(row.ownerId(), id -> new ArrayList<>()).add(row.groupId());
+                loaded.ownerByGroup.put(row.groupId(), row.ownerId());
+            }
+            byOwner.forEach((ownerId, groupIds) ->
+                    loaded.groupsByOwner.put(ownerId, groupIds.stream().mapToLong(Long::longValue).sorted().toArray()));
+
+            int replayed;
+            writeLock.lock();
+            try {
+                replayed = pending.size();
+                pending.forEach(loaded::apply);
+                pending = null;
+                current = loaded;
+            } finally {
+                writeLock.unlock();
+            }
+
+            log.info("Índice de donos carregado: {} grupos de {} donos ({} eventos reaplicados) em {} ms",
+                    loaded.ownerByGroup.size(), loaded.groupsByOwner.size(), replayed,
+                    System.currentTimeMillis() - started);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Índice publicado: nunca é esvaziado; só recebe os eventos incrementais, sob o writeLock
+    private static final class Index {
+
+        private final ConcurrentHashMap<Long, long[]> groupsByOwner = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, Long> ownerByGroup = new ConcurrentHashMap<>();
+
+        private boolean owns(long ownerId, long groupId) {
+            return Arrays.binarySearch(groupsByOwner.getOrDefault(ownerId, EMPTY), groupId) >= 0;
+        }
+
+        private void apply(GroupOwnershipChangedEvent event) {
+            if (event.removed()) {
+                remove(event.groupId(), event.ownerId());
+            } else {
+                add(event.groupId(), event.ownerId());
+            }
+        }
+
+        // Ordem das escritas: quem encontra o grupo em ownerByGroup sempre o encontra no array do dono
+        private void add(long groupId, long ownerId) {
+            groupsByOwner.compute(ownerId, (id, groups) -> insert(groups != null ? groups : EMPTY, groupId));
+            ownerByGroup.put(groupId, ownerId);
+        }
+
+        private void remove(long groupId, long ownerId) {
+            ownerByGroup.remove(groupId, ownerId);
+            groupsByOwner.computeIfPresent(ownerId, (id, groups) -> {
+                long[] remaining = delete(groups, groupId);
+                return remaining.length == 0 ? null : remaining;
+            });
+        }
+    }
+
+    private static long[] insert(long[] groups, long groupId) {
+        int position = Arrays.binarySearch(groups, groupId);
+        if (position >= 0) {
+            return groups;
+        }
+        int at = -position - 1;
+        long[] copy = new long[groups.length + 1];
+        System.arraycopy(groups, 0, copy, 0, at);
+        copy[at] = groupId;
+        System.arraycopy(groups, at, copy, at + 1, groups.length - at);
+        return copy;
+    }
+
+    private static long[] delete(long[] groups, long groupId) {
+        int position = Arrays.binarySearch(groups, groupId);
+        if (position < 0) {
+            return groups;
+        }
+        long[] copy = new long[groups.length - 1];
+        System.arraycopy(groups, 0, copy, 0, position);
+        System.arraycopy(groups, position + 1, copy, position, groups.length - position - 1);
+        return copy;
+    }
+}
@@ -1,23 +1,33 @@
 package com.eduardomoia.despesas.services;
 
+import com.eduardomoia.despesas.dtos.group.GroupBudgetStatusDTO;
+import com.eduardomoia.despesas.dtos.group.GroupBudgetUpdateDTO;
 import com.eduardomoia.despesas.dtos.group.GroupCreateDTO;
+import com.eduardomoia.despesas.dtos.group.GroupPatchDTO;
 import com.eduardomoia.despesas.dtos.group.GroupResponseDTO;
 import com.eduardomoia.despesas.dtos.group.GroupUpdateDTO;
 import com.eduardomoia.despesas.entities.Group;
 import com.eduardomoia.despesas.entities.User;
 import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.PreconditionFailedException;
 import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
 import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupBudgetProjection;
 import com.eduardomoia.despesas.repositories.GroupRepository;
 import com.eduardomoia.despesas.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -27,6 +37,11 @@ public class GroupService {
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final ExpenseRepository expenseRepository;
+    private final GroupBudgetTracker budgetTracker;
+    private final GroupMemberService groupMemberService;
+    private final UserLookupCache userLookupCache;
+    private final GroupLookupCache groupLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public GroupResponseDTO create(GroupCreateDTO dto, String authenticatedEmail) {
@@ -44,8 +59,11 @@ public class GroupService {
         group.setOwner(owner);
 
         Group saved = groupRepository.save(group);
+        groupMemberService.addOwner(saved);
+        eventPublisher.publishEvent(GroupOwnershipChangedEvent.created(saved.getId(), owner.getId()));
+        groupLookupCache.evictOwner(authenticatedEmail);
 
-        log.info("Grupo criado com sucesso id={} name={} owner={}", saved.getId(), saved.getName(), owner.getEmail());
+        log.info("Grupo criado com sucesso id={} name={} owner={}", saved.getId(), saved.getName(), authenticatedEmail);
         return toResponseDTO(saved);
     }
 
@@ -53,73 +71,142 @@ public class GroupService {
         log.debug("Buscando grupos paginados para user={} pageable={}", authenticatedEmail, pageable);
         findUserByEmail(authenticatedEmail); // garante que o usuário exista
 
-        return groupRepository.findByOwner_Email(authenticatedEmail, pageable)
-                .map(this::toResponseDTO);
+        return groupLookupCache.findPage(authenticatedEmail, pageable);
     }
 
     public GroupResponseDTO findById(Long id, String authenticatedEmail) {
         log.debug("Buscando grupo por id={} user={}", id, authenticatedEmail);
-        User owner = findUserByEmail(authenticatedEmail);
-        Group group = findOwnedGroup(id, owner);
-        return toResponseDTO(group);
+        Long userId = findUserIdByEmail(authenticatedEmail);
+        GroupResponseDTO group = groupLookupCache.findResponse(id);
+        if (group == null) {
+            throw new ResourceNotFoundException("Grupo não encontrado para o id: " + id);
+        }
+        if (!userId.equals(group.ownerId())) {
+            throw new AccessDeniedException("Usuário não possui acesso ao grupo solicitado.");
+        }
+        return group;
     }
 
+    // expectedVersion vem do If-Match; nulo dispensa a pré-condição
     @Transactional
-    public GroupResponseDTO update(Long id, GroupUpdateDTO dto, String authenticatedEmail) {
-        log.debug("Atualizando grupo id={} user={}", id, authenticatedEmail);
+    public GroupResponseDTO update(Long id, GroupUpdateDTO dto, Long expectedVersion, String authenticatedEmail) {
+        log.debug("Atualizando grupo id={} version={} user={}", id, expectedVersion, authenticatedEmail);
 
-        User owner = findUserByEmail(authenticatedEmail);
-        Group group = findOwnedGroup(id, owner);
+        Group group = findOwnedGroup(id, authenticatedEmail);
+        checkVersion(group, expectedVersion);
+        return applyChanges(group, dto.name(), dto.description(), authenticatedEmail);
+    }
 
-        boolean nomeAlterado = !group.getName().equals(dto.name());
-        if (nomeAlterado && groupRepository.existsByName(dto.name())) {
+    @Transactional
+    public GroupResponseDTO patch(Long id, GroupPatchDTO dto, Long expectedVersion, String authenticatedEmail) {
+        log.debug("Atualizando parcialmente grupo id={} version={} user={}", id, expectedVersion, authenticatedEmail);
+
+        Group group = findOwnedGroup(id, authenticatedEmail);
+        checkVersion(group, expectedVersion);
+        return applyChanges(group,
+                Objects.requireNonNullElse(dto.name(), group.getName()),
+                dto.description() != null ? dto.description() : group.getDescription(),
+                authenticatedEmail);
+    }
+
+    private GroupResponseDTO applyChanges(Group group, String name, String description, String authenticatedEmail) {
+        boolean nomeAlterado = !group.getName().equals(name);
+        if (nomeAlterado && groupRepository.existsByName(name)) {
             throw new BusinessException("Já existe outro grupo cadastrado com esse nome.");
         }
 
-        group.setName(dto.name());
-        group.setDescription(dto.description());
+        group.setName(name);
+        group.setDescription(description);
 
-        Group updated = groupRepository.save(group);
-        log.info("Grupo atualizado id={} por user={}", updated.getId(), owner.getEmail());
+        // Flush aqui para a resposta (e o ETag) já trazer a versão incrementada
+        Group updated = groupRepository.saveAndFlush(group);
+        groupLookupCache.evictGroup(updated.getId());
+        groupLookupCache.evictOwner(authenticatedEmail);
+        log.info("Grupo atualizado id={} version={} por user={}", updated.getId(), updated.getVersion(),
+                authenticatedEmail);
 
         return toResponseDTO(updated);
     }
 
+    private void checkVersion(Group group, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(group.getVersion())) {
+            throw new PreconditionFailedException("O grupo foi alterado desde a versão informada (atual: "
+                    + group.getVersion() + ").");
+        }
+    }
+
     @Transactional
     public void delete(Long id, String authenticatedEmail) {
         log.debug("Removendo grupo id={} user={}", id, authenticatedEmail);
-        User owner = findUserByEmail(authenticatedEmail);
-        Group group = findOwnedGroup(id, owner);
+        Group group = findOwnedGroup(id, authenticatedEmail);
 
         if (expenseRepository.existsByGroup_Id(id)) {
             throw new BusinessException("Não é possível remover o grupo pois existem despesas associadas.");
         }
 
         groupRepository.delete(group);
-        log.info("Grupo removido id={} por user={}", id, owner.getEmail());
+        eventPublisher.publishEvent(new GroupBudgetChangedEvent(id, null));
+        eventPublisher.publishEvent(GroupOwnershipChangedEvent.removed(id, group.getOwner().getId()));
+        groupLookupCache.evictGroup(id);
+        groupLookupCache.evictOwner(authenticatedEmail);
+        log.info("Grupo removido id={} por user={}", id, authenticatedEmail);
     }
 
-    private Group findOwnedGroup(Long id, User owner) {
-        Group group = findEntityById(id);
-        validateOwnership(group, owner);
-        return group;
+    @Transactional
+    public GroupBudgetStatusDTO updateBudget(Long id, GroupBudgetUpdateDTO dto, String authenticatedEmail) {
+        log.debug("Atualizando orçamento do grupo id={} user={}", id, authenticatedEmail);
+        Group group = findOwnedGroup(id, authenticatedEmail);
+
+        group.setMonthlyBudget(dto.monthlyBudget());
+        groupRepository.save(group);
+        eventPublisher.publishEvent(new GroupBudgetChangedEvent(id, dto.monthlyBudget()));
+        // O orçamento também incrementa a versão: sem o evict, o ETag em cache faria o próximo If-Match dar 412
+        groupLookupCache.evictGroup(id);
+        groupLookupCache.evictOwner(authenticatedEmail);
+        log.info("Orçamento do grupo id={} definido para {} por user={}", id, dto.monthlyBudget(), authenticatedEmail);
+
+        return budgetTracker.status(id, dto.monthlyBudget(), YearMonth.now());
     }
 
-    private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+    public GroupBudgetStatusDTO budgetStatus(Long id, YearMonth month, String authenticatedEmail) {
+        log.debug("Consultando orçamento do grupo id={} month={} user={}", id, month, authenticatedEmail);
+        GroupBudgetProjection budget = groupRepository.findOwnedBudgetById(id, authenticatedEmail)
+                .orElseThrow(() -> accessFailure(id));
+        return budgetTracker.status(id, budget.monthlyBudget(), month != null ? month : YearMonth.now());
     }
 
-    private void validateOwnership(Group group, User owner) {
-        if (group.getOwner() == null || !group.getOwner().getId().equals(owner.getId())) {
-            throw new AccessDeniedException("Usuário não possui acesso ao grupo solicitado.");
+    public List<GroupBudgetStatusDTO> budgetStatuses(YearMonth month, String authenticatedEmail) {
+        log.debug("Consultando orçamentos dos grupos month={} user={}", month, authenticatedEmail);
+        YearMonth period = month != null ? month : YearMonth.now();
+        return groupRepository.findBudgetsByOwnerEmail(authenticatedEmail).stream()
+                .map(row -> budgetTracker.status(row.groupId(), row.monthlyBudget(), period))
+                .toList();
+    }
+
+    // Autoriza e carrega (com o owner) no mesmo select; o existsById só roda no caminho de falha
+    private Group findOwnedGroup(Long id, String ownerEmail) {
+        return groupRepository.findOwnedById(id, ownerEmail)
+                .orElseThrow(() -> accessFailure(id));
+    }
+
+    private RuntimeException accessFailure(Long id) {
+        if (groupRepository.existsById(id)) {
+            return new AccessDeniedException("Usuário não possui acesso ao grupo solicitado.");
         }
+        return new ResourceNotFoundException("Grupo não encontrado para o id: " + id);
     }
 
-    private Group findEntityById(Long id) {
-        return groupRepository.findById(id)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Grupo não encontrado para o id: " + id));
+    // Id vem do cache; a referência só vira select se algum atributo além do id for lido
+    private User findUserByEmail(String email) {
+        return userRepository.getReferenceById(findUserIdByEmail(email));
+    }
+
+    private Long findUserIdByEmail(String email) {
+        Long userId = userLookupCache.findIdByEmail(email);
+        if (userId == null) {
+            throw new ResourceNotFoundException("Usuário autenticado não encontrado.");
+        }
+        return userId;
     }
 
     private GroupResponseDTO toResponseDTO(Group group) {
@@ -128,7 +215,8 @@ public class GroupService {
                 group.getName(),
                 group.getDescription(),
                 group.getOwner() != null ? group.getOwner().getId() : null,
-                group.getOwner() != null ? group.getOwner().getName() : null
+                group.getOwner() != null ? group.getOwner().getName() : null,
+                group.getVersion()
         );
     }
 }
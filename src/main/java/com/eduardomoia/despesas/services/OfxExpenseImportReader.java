@@ -0,0 +1,113 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê os blocos STMTTRN de um extrato OFX (SGML ou XML) como uma sequência de tags,
+ * sem montar a árvore do documento. Cada lançamento de débito vira uma despesa OTHER.
+ */
+class OfxExpenseImportReader implements ExpenseImportReader {
+
+    private final BufferedReader reader;
+    private final Long groupId;
+    private final StringBuilder buffer = new StringBuilder();
+    private long rowNumber;
+
+    OfxExpenseImportReader(BufferedReader reader, Long groupId) {
+        this.reader = reader;
+        this.groupId = groupId;
+    }
+
+    @Override
+    public ExpenseImportRow next() throws IOException {
+        Map<String, String> fields = null;
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                fields = new HashMap<>();
+            } else if (tag.equals("/STMTTRN") && fields != null) {
+                return toRow(++rowNumber, fields);
+            } else if (fields != null && !tag.startsWith("/")) {
+                fields.put(tag, readValue());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ExpenseImportRow toRow(long row, Map<String, String> fields) {
+        try {
+            BigDecimal amount = new BigDecimal(fields.getOrDefault("TRNAMT", ""));
+            if (amount.signum() >= 0) {
+                return ExpenseImportRow.rejected(row, "Lançamento de crédito não é despesa.");
+            }
+            String description = fields.getOrDefault("MEMO", fields.get("NAME"));
+            return ExpenseImportRow.parsed(row, new ExpenseCreateDTO(
+                    description,
+                    amount.abs(),
+                    parseDate(fields.get("DTPOSTED")),
+                    ExpenseCategory.OTHER,
+                    groupId
+            ));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return ExpenseImportRow.rejected(row, "Valor ou data inválidos: " + e.getMessage());
+        }
+    }
+
+    // DTPOSTED vem como yyyyMMdd seguido opcionalmente de hora e fuso
+    private LocalDate parseDate(String value) {
+        if (value == null || value.length() < 8) {
+            return null;
+        }
+        return LocalDate.parse(value.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // ignora conteúdo fora de tags (cabeçalho OFX, quebras de linha)
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        buffer.setLength(0);
+        while ((c = reader.read()) != -1 && c != '>') {
+            buffer.append((char) c);
+        }
+        return buffer.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Valor de uma tag folha: tudo até a próxima '<', que fica para a próxima leitura
+    private String readValue() throws IOException {
+        buffer.setLength(0);
+        reader.mark(1);
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            buffer.append((char) c);
+            reader.mark(1);
+        }
+        if (c == '<') {
+            reader.reset();
+        }
+        return buffer.toString().trim()
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&amp;", "&");
+    }
+}
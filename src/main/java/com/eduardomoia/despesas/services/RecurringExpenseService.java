@@ -0,0 +1,280 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.RecurringExpenseProperties;
+import com.eduardomoia.despesas.dtos.expense.RecurringExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.RecurringExpenseResponseDTO;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.RecurringExpense;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.RecurrenceProjection;
+import com.eduardomoia.despesas.repositories.RecurringExpenseRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Modelos de despesas mensais (aluguel, assinaturas) e o agendador que gera as ocorrências vencidas.
+ * As recorrências são percorridas em lotes por keyset; cada lote grava as despesas em batch e avança
+ * o next_run_date na mesma transação. A unique (recorrência, mês) torna a geração idempotente.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurringExpenseService {
+
+    private static final String RECURRENCE_CONSTRAINT = "uk_expenses_recurrence";
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseRepository expenseRepository;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final ExpenseService expenseService;
+    private final RecurringExpenseProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public RecurringExpenseResponseDTO create(RecurringExpenseCreateDTO dto, String authenticatedEmail) {
+        log.debug("Criando recorrência groupId={} user={}", dto.groupId(), authenticatedEmail);
+
+        if (dto.endDate() != null && dto.endDate().isBefore(dto.startDate())) {
+            throw new BusinessException("A data final deve ser posterior ou igual à data inicial.");
+        }
+
+        RecurringExpense saved = transactionTemplate.execute(status -> {
+            User currentUser = findUserByEmail(authenticatedEmail);
+            Group group = groupRepository.findById(dto.groupId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Grupo não encontrado para o id: " + dto.groupId()));
+            validateGroupOwnership(group, currentUser);
+
+            RecurringExpense recurring = RecurringExpense.builder()
+                    .description(dto.description())
+                    .amount(dto.amount())
+                    .category(dto.category())
+                    .dayOfMonth(dto.dayOfMonth())
+                    .startDate(dto.startDate())
+                    .endDate(dto.endDate())
+                    .group(group)
+                    .createdBy(currentUser)
+                    .createdAt(Instant.now())
+                    .build();
+            recurring.setNextRunDate(firstOccurrence(recurring));
+            return recurringExpenseRepository.save(recurring);
+        });
+
+        log.info("Recorrência criada id={} groupId={} próxima={}", saved.getId(), dto.groupId(), saved.getNextRunDate());
+        return toResponseDTO(saved);
+    }
+
+    public Page<RecurringExpenseResponseDTO> findAll(Pageable pageable, String authenticatedEmail) {
+        log.debug("Buscando recorrências paginadas user={} pageable={}", authenticatedEmail, pageable);
+        findUserByEmail(authenticatedEmail); // garante que o usuário exista
+        return recurringExpenseRepository.findResponsesByOwnerEmail(authenticatedEmail, pageable);
+    }
+
+    public RecurringExpenseResponseDTO findById(Long id, String authenticatedEmail) {
+        log.debug("Buscando recorrência id={} user={}", id, authenticatedEmail);
+        return transactionTemplate.execute(status -> toResponseDTO(findOwned(id, authenticatedEmail)));
+    }
+
+    // Despesas já geradas continuam existindo; só as próximas ocorrências deixam de ser criadas
+    public void delete(Long id, String authenticatedEmail) {
+        log.debug("Removendo recorrência id={} user={}", id, authenticatedEmail);
+        transactionTemplate.executeWithoutResult(status -> recurringExpenseRepository.delete(findOwned(id, authenticatedEmail)));
+        log.info("Recorrência removida id={} por user={}", id, authenticatedEmail);
+    }
+
+    @Scheduled(cron = "${despesas.recurring.cron:0 5 0 * * *}")
+    public void materializeScheduled() {
+        materializeDue(LocalDate.now());
+    }
+
+    // Recupera os meses perdidos enquanto a aplicação esteve fora do ar
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (properties.catchUpOnStartup()) {
+            materializeDue(LocalDate.now());
+        }
+    }
+
+    /**
+     * Gera todas as ocorrências com data até {@code today}, no máximo {@code maxCatchUpPeriods} por recorrência
+     * em cada execução. Retorna o número de despesas criadas.
+     */
+    public int materializeDue(LocalDate today) {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        int created = 0;
+        int templates = 0;
+
+        while (true) {
+            long cursor = afterId;
+            ChunkResult chunk;
+            try {
+                chunk = transactionTemplate.execute(status -> materializeChunk(today, cursor));
+                templates += chunk.templates();
+                created += chunk.created();
+            } catch (DataIntegrityViolationException e) {
+                chunk = skipChunk(today, cursor, e);
+            }
+            if (chunk.templates() < properties.batchSize()) {
+                break;
+            }
+            afterId = chunk.lastId();
+        }
+
+        if (templates > 0) {
+            log.info("Recorrências processadas: {} modelos, {} despesas geradas em {} ms",
+                    templates, created, System.currentTimeMillis() - started);
+        }
+        return created;
+    }
+
+    // O lote foi desfeito inteiro (nextRunDate inclusive) e fica para a próxima execução; os seguintes continuam
+    private ChunkResult skipChunk(LocalDate today, long afterId, DataIntegrityViolationException e) {
+        List<Long> ids = recurringExpenseRepository.findDueIds(today, afterId, Limit.of(properties.batchSize()));
+        long lastId = ids.isEmpty() ? afterId : ids.get(ids.size() - 1);
+        if (isRecurrenceDuplicate(e)) {
+            log.warn("Ocorrências já geradas concorrentemente nas recorrências id={}..{}; lote ignorado", afterId + 1, lastId);
+        } else {
+            log.error("Falha de integridade ao gerar as recorrências id={}..{}; lote ignorado", afterId + 1, lastId, e);
+        }
+        return new ChunkResult(ids.size(), 0, lastId);
+    }
+
+    // Só a unique de (recorrência, mês) indica que outra instância gerou as mesmas ocorrências
+    private static boolean isRecurrenceDuplicate(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            // O H2 informa o nome em maiúsculas e qualificado (PUBLIC.UK_EXPENSES_RECURRENCE_INDEX_...)
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(RECURRENCE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ChunkResult materializeChunk(LocalDate today, long afterId) {
+        List<RecurringExpense> due = recurringExpenseRepository.findDue(today, afterId, Limit.of(properties.batchSize()));
+        if (due.isEmpty()) {
+            return new ChunkResult(0, 0, afterId);
+        }
+
+        // Uma consulta por lote descobre as ocorrências que já existem, para nunca depender só da unique
+        List<Long> ids = due.stream().map(RecurringExpense::getId).toList();
+        LocalDate from = due.stream()
+                .map(recurring -> recurring.getNextRunDate().withDayOfMonth(1))
+                .min(LocalDate::compareTo)
+                .orElseThrow();
+        Set<RecurrenceProjection> existing = new HashSet<>(expenseRepository.findRecurrences(ids, from));
+
+        List<Expense> pending = new ArrayList<>();
+        for (RecurringExpense recurring : due) {
+            LocalDate next = recurring.getNextRunDate();
+            int periods = 0;
+            while (next != null && !next.isAfter(today) && periods < properties.maxCatchUpPeriods()) {
+                LocalDate period = next.withDayOfMonth(1);
+                if (!existing.contains(new RecurrenceProjection(recurring.getId(), period))) {
+                    pending.add(toExpense(recurring, next, period));
+                }
+                periods++;
+                next = nextOccurrence(recurring, YearMonth.from(next).plusMonths(1));
+            }
+            recurring.setNextRunDate(next);
+        }
+
+        expenseService.saveGenerated(pending);
+        return new ChunkResult(due.size(), pending.size(), due.get(due.size() - 1).getId());
+    }
+
+    private Expense toExpense(RecurringExpense recurring, LocalDate date, LocalDate period) {
+        return Expense.builder()
+                .description(recurring.getDescription())
+                .amount(recurring.getAmount())
+                .date(date)
+                .category(recurring.getCategory())
+                .group(recurring.getGroup())
+                .createdBy(recurring.getCreatedBy())
+                .recurringExpenseId(recurring.getId())
+                .recurrencePeriod(period)
+                .build();
+    }
+
+    private LocalDate firstOccurrence(RecurringExpense recurring) {
+        YearMonth month = YearMonth.from(recurring.getStartDate());
+        LocalDate candidate = occurrenceIn(month, recurring.getDayOfMonth());
+        if (candidate.isBefore(recurring.getStartDate())) {
+            return nextOccurrence(recurring, month.plusMonths(1));
+        }
+        return recurring.getEndDate() != null && candidate.isAfter(recurring.getEndDate()) ? null : candidate;
+    }
+
+    private LocalDate nextOccurrence(RecurringExpense recurring, YearMonth month) {
+        LocalDate candidate = occurrenceIn(month, recurring.getDayOfMonth());
+        return recurring.getEndDate() != null && candidate.isAfter(recurring.getEndDate()) ? null : candidate;
+    }
+
+    private static LocalDate occurrenceIn(YearMonth month, int dayOfMonth) {
+        return month.atDay(Math.min(dayOfMonth, month.lengthOfMonth()));
+    }
+
+    private RecurringExpense findOwned(Long id, String authenticatedEmail) {
+        User currentUser = findUserByEmail(authenticatedEmail);
+        RecurringExpense recurring = recurringExpenseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Recorrência não encontrada para o id: " + id));
+        validateGroupOwnership(recurring.getGroup(), currentUser);
+        return recurring;
+    }
+
+    private User findUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário autenticado não encontrado."));
+    }
+
+    private void validateGroupOwnership(Group group, User owner) {
+        if (group.getOwner() == null || !group.getOwner().getId().equals(owner.getId())) {
+            throw new AccessDeniedException("Usuário não possui acesso às despesas do grupo solicitado.");
+        }
+    }
+
+    private RecurringExpenseResponseDTO toResponseDTO(RecurringExpense recurring) {
+        return new RecurringExpenseResponseDTO(
+                recurring.getId(),
+                recurring.getDescription(),
+                recurring.getAmount(),
+                recurring.getCategory(),
+                recurring.getDayOfMonth(),
+                recurring.getStartDate(),
+                recurring.getEndDate(),
+                recurring.getNextRunDate(),
+                recurring.getGroup().getId(),
+                recurring.getGroup().getName()
+        );
+    }
+
+    private record ChunkResult(int templates, int created, long lastId) {
+    }
+}
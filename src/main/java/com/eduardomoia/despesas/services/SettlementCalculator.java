@@ -0,0 +1,75 @@
+package com.eduardomoia.despesas.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Simplificação de dívidas a partir dos saldos líquidos (centavos; positivo = tem a receber).
+ * Primeiro casa devedores e credores com o mesmo valor (uma transferência zera os dois); o resto
+ * vai para dois heaps e, a cada passo, o maior devedor paga ao maior credor o menor dos dois valores.
+ * Cada passo zera ao menos um lado, então são no máximo n - 1 transferências em O(n log n).
+ * O mínimo exato é NP-difícil; o guloso fica nele ou perto dele nos casos reais.
+ */
+final class SettlementCalculator {
+
+    private static final Comparator<Position> LARGEST_FIRST =
+            Comparator.comparingLong(Position::cents).reversed().thenComparingLong(Position::userId);
+
+    private SettlementCalculator() {
+    }
+
+    static List<Transfer> settle(Map<Long, Long> balances) {
+        Map<Long, Deque<Long>> creditorsByAmount = new HashMap<>();
+        List<Position> debtors = new ArrayList<>();
+        balances.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    long cents = entry.getValue();
+                    if (cents > 0) {
+                        creditorsByAmount.computeIfAbsent(cents, amount -> new ArrayDeque<>()).add(entry.getKey());
+                    } else if (cents < 0) {
+                        debtors.add(new Position(entry.getKey(), -cents));
+                    }
+                });
+
+        List<Transfer> transfers = new ArrayList<>();
+        PriorityQueue<Position> remainingDebtors = new PriorityQueue<>(LARGEST_FIRST);
+        for (Position debtor : debtors) {
+            Deque<Long> sameAmount = creditorsByAmount.get(debtor.cents());
+            if (sameAmount != null && !sameAmount.isEmpty()) {
+                transfers.add(new Transfer(debtor.userId(), sameAmount.poll(), debtor.cents()));
+            } else {
+                remainingDebtors.add(debtor);
+            }
+        }
+
+        PriorityQueue<Position> creditors = new PriorityQueue<>(LARGEST_FIRST);
+        creditorsByAmount.forEach((cents, userIds) -> userIds.forEach(userId -> creditors.add(new Position(userId, cents))));
+
+        while (!creditors.isEmpty() && !remainingDebtors.isEmpty()) {
+            Position creditor = creditors.poll();
+            Position debtor = remainingDebtors.poll();
+            long amount = Math.min(creditor.cents(), debtor.cents());
+            transfers.add(new Transfer(debtor.userId(), creditor.userId(), amount));
+            if (creditor.cents() > amount) {
+                creditors.add(new Position(creditor.userId(), creditor.cents() - amount));
+            }
+            if (debtor.cents() > amount) {
+                remainingDebtors.add(new Position(debtor.userId(), debtor.cents() - amount));
+            }
+        }
+        return transfers;
+    }
+
+    record Transfer(long fromUserId, long toUserId, long cents) {
+    }
+
+    private record Position(long userId, long cents) {
+    }
+}
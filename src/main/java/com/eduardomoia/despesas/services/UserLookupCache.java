@@ -0,0 +1,27 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.CacheConfig;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+// E-mail do usuário autenticado -> id; os services usam o id para obter uma referência sem select
+@Component
+@RequiredArgsConstructor
+public class UserLookupCache {
+
+    private final UserRepository userRepository;
+
+    // E-mails inexistentes não são guardados: um cadastro novo fica visível na hora
+    @Cacheable(cacheNames = CacheConfig.USER_IDS, unless = "#result == null")
+    public Long findIdByEmail(String email) {
+        return userRepository.findIdByEmail(email).orElse(null);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.USER_IDS)
+    public void evict(String email) {
+        // só o evict
+    }
+}
@@ -1,5 +1,6 @@
 package com.eduardomoia.despesas.services;
 
+import com.eduardomoia.despesas.config.CacheConfig;
 import com.eduardomoia.despesas.dtos.user.UserCreateDTO;
 import com.eduardomoia.despesas.dtos.user.UserResponseDTO;
 import com.eduardomoia.despesas.dtos.user.UserUpdateDTO;
@@ -8,10 +9,15 @@ import com.eduardomoia.despesas.entities.enums.Role;
 import com.eduardomoia.despesas.exceptions.BusinessException;
 import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
 import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.ExpenseShareRepository;
 import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.GroupSettlementRepository;
 import com.eduardomoia.despesas.repositories.UserRepository;
+import com.eduardomoia.despesas.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,7 +35,12 @@ public class UserService {
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
     private final ExpenseRepository expenseRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final GroupSettlementRepository settlementRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final UserLookupCache userLookupCache;
+    private final GroupLookupCache groupLookupCache;
 
     @Transactional
     public UserResponseDTO create(UserCreateDTO dto) {
@@ -58,6 +69,7 @@ public class UserService {
                 .map(this::toResponseDTO);
     }
 
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
     public UserResponseDTO findById(Long id) {
         log.debug("Buscando usuário por id={}", id);
         User user = findEntityById(id);
@@ -65,26 +77,40 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public UserResponseDTO update(Long id, UserUpdateDTO dto) {
         log.debug("Atualizando usuário id={}", id);
 
         User user = findEntityById(id);
+        String emailAnterior = user.getEmail();
 
         boolean emailAlterado = !user.getEmail().equals(dto.email());
         if (emailAlterado && userRepository.existsByEmail(dto.email())) {
             throw new BusinessException("Já existe outro usuário cadastrado com esse e-mail.");
         }
 
+        boolean nomeAlterado = !user.getName().equals(dto.name());
+        if (emailAlterado || nomeAlterado) {
+            // Os grupos do usuário expõem o nome do dono e as páginas são indexadas pelo e-mail dele
+            groupRepository.findIdsByOwnerEmail(emailAnterior).forEach(groupLookupCache::evictGroup);
+            groupLookupCache.evictOwner(emailAnterior);
+        }
+        if (emailAlterado) {
+            userLookupCache.evict(emailAnterior);
+        }
+
         user.setName(dto.name());
         user.setEmail(dto.email());
 
         User updated = userRepository.save(user);
+        principalCache.invalidate(updated.getId(), emailAnterior, updated.getEmail());
         log.info("Usuário atualizado id={}", updated.getId());
 
         return toResponseDTO(updated);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public void delete(Long id) {
         log.debug("Removendo usuário id={}", id);
         User user = findEntityById(id);
@@ -97,7 +123,15 @@ public class UserService {
             throw new BusinessException("Não é possível remover o usuário pois ele possui despesas cadastradas.");
         }
 
+        if (expenseShareRepository.existsByUser_Id(id)
+                || expenseRepository.existsByPaidBy_Id(id)
+                || settlementRepository.existsByFromUser_IdOrToUser_Id(id, id)) {
+            throw new BusinessException("Não é possível remover o usuário pois ele participa de despesas divididas.");
+        }
+
         userRepository.delete(user);
+        userLookupCache.evict(user.getEmail());
+        principalCache.invalidate(id, user.getEmail());
         log.info("Usuário removido id={}", id);
     }
 
@@ -112,7 +146,7 @@ public class UserService {
                 user.getId(),
                 user.getName(),
                 user.getEmail(),
-                user.getRoles() // se não tiver roles, remove esse campo do DTO também
+                Set.copyOf(user.getRoles()) // cópia: o DTO pode ir para o cache, a coleção do Hibernate não
         );
     }
 }
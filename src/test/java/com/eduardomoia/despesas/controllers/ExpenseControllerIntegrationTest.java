@@ -0,0 +1,204 @@
+package com.eduardomoia.despesas.controllers;
+
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000"
+})
+@Transactional
+class ExpenseControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Test
+    void updatesShouldRequireTheCurrentVersionWhenIfMatchIsSent() throws Exception {
+        User owner = persistUser("etag-owner@example.com");
+        Expense expense = persistExpense(owner);
+        RequestPostProcessor asOwner = user(owner.getEmail()).roles("USER");
+
+        mockMvc.perform(get("/api/expenses/{id}", expense.getId()).with(asOwner))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").value(0));
+
+        String body = """
+                {"description": "Mercado", "amount": 80.00, "date": "2024-05-10", "category": "FOOD"}
+                """;
+        mockMvc.perform(put("/api/expenses/{id}", expense.getId()).with(asOwner)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.amount").value(80.00));
+
+        // Quem ainda tem a versão 0 não sobrescreve a alteração anterior
+        mockMvc.perform(put("/api/expenses/{id}", expense.getId()).with(asOwner)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/expenses/{id}", expense.getId()).with(asOwner)
+                        .header(HttpHeaders.IF_MATCH, "versao-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+
+        // Sem If-Match continua funcionando como antes
+        mockMvc.perform(put("/api/expenses/{id}", expense.getId()).with(asOwner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.replace("80.00", "85.00")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    @Test
+    void patchShouldOnlyChangeTheFieldsSent() throws Exception {
+        User owner = persistUser("patch-owner@example.com");
+        Expense expense = persistExpense(owner);
+        RequestPostProcessor asOwner = user(owner.getEmail()).roles("USER");
+
+        mockMvc.perform(patch("/api/expenses/{id}", expense.getId()).with(asOwner)
+                        .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 42.50}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.amount").value(42.50))
+                .andExpect(jsonPath("$.description").value("Feira"))
+                .andExpect(jsonPath("$.date").value("2024-05-10"))
+                .andExpect(jsonPath("$.category").value("FOOD"));
+
+        mockMvc.perform(patch("/api/expenses/{id}", expense.getId()).with(asOwner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"description": "   "}
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void groupPatchShouldHonourIfMatch() throws Exception {
+        User owner = persistUser("group-etag@example.com");
+        Group group = groupRepository.save(Group.builder().name("Grupo ETag").description("Casa").owner(owner).build());
+        RequestPostProcessor asOwner = user(owner.getEmail()).roles("USER");
+
+        mockMvc.perform(patch("/api/groups/{id}", group.getId()).with(asOwner)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Grupo ETag renomeado"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.description").value("Casa"));
+
+        mockMvc.perform(patch("/api/groups/{id}", group.getId()).with(asOwner)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"description": "Praia"}
+                                """))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    // Sem transação no teste: o cache de grupos só recebe entradas depois do commit
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void budgetChangesShouldRefreshTheCachedGroupETag() throws Exception {
+        User owner = persistUser("budget-etag@example.com");
+        Group group = groupRepository.save(Group.builder().name("Grupo orçamento ETag").owner(owner).build());
+        RequestPostProcessor asOwner = user(owner.getEmail()).roles("USER");
+
+        mockMvc.perform(get("/api/groups/{id}", group.getId()).with(asOwner))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(put("/api/groups/{id}/budget", group.getId()).with(asOwner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"monthlyBudget": 500.00}
+                                """))
+                .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/api/groups/{id}", group.getId()).with(asOwner))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/groups/{id}", group.getId()).with(asOwner)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"description": "Com orçamento"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("ETag")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+
+    private Expense persistExpense(User owner) {
+        Group group = groupRepository.save(Group.builder().name("Grupo " + owner.getEmail()).owner(owner).build());
+        return expenseRepository.saveAndFlush(Expense.builder()
+                .description("Feira")
+                .amount(new BigDecimal("35.00"))
+                .date(LocalDate.of(2024, 5, 10))
+                .category(ExpenseCategory.FOOD)
+                .group(group)
+                .createdBy(owner)
+                .build());
+    }
+}
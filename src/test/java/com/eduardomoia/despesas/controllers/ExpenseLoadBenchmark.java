@@ -0,0 +1,159 @@
+package com.eduardomoia.despesas.controllers;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import com.eduardomoia.despesas.security.CustomUserDetailsService;
+import com.eduardomoia.despesas.security.JwtService;
+import com.eduardomoia.despesas.services.ExpenseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga HTTP de leitura (listagem do grupo e despesa por id) com mais clientes simultâneos do que
+ * threads no Tomcat de plataforma, para comparar o modo de threads das subclasses: vazão, p50 e p99.
+ * Mesma massa, mesmo pool JDBC e mesmo número de requisições nos dois modos.
+ */
+@Slf4j
+abstract class ExpenseLoadBenchmark {
+
+    private static final int CLIENTS = 400;
+    private static final int WARMUP_REQUESTS_PER_CLIENT = 5;
+    private static final int REQUESTS_PER_CLIENT = 25;
+    private static final int EXPENSES = 300;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    protected abstract String mode();
+
+    @Test
+    void readLoadShouldBeServedWithoutErrors() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("Carga")
+                .email("load-" + mode() + "-" + System.nanoTime() + "@example.com")
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+        Group group = groupRepository.save(Group.builder().name("Carga " + owner.getId()).owner(owner).build());
+        List<ExpenseCreateDTO> items = new ArrayList<>(EXPENSES);
+        for (int i = 0; i < EXPENSES; i++) {
+            items.add(new ExpenseCreateDTO("Carga " + i, BigDecimal.valueOf(100 + i, 2),
+                    LocalDate.of(2024, 1 + i % 12, 1 + i % 28), ExpenseCategory.FOOD, group.getId()));
+        }
+        expenseService.createBatch(items, owner.getEmail());
+        List<Long> expenseIds = expenseService.findByGroup(group.getId(),
+                        PageRequest.of(0, EXPENSES), owner.getEmail())
+                .map(ExpenseResponseDTO::id).getContent();
+
+        String token = jwtService.generateToken(userDetailsService.loadUserByUsername(owner.getEmail()));
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<URI> uris = new ArrayList<>();
+        uris.add(URI.create("http://localhost:" + port + "/api/expenses?groupId=" + group.getId() + "&size=20"));
+        for (Long id : expenseIds) {
+            uris.add(URI.create("http://localhost:" + port + "/api/expenses/" + id));
+        }
+
+        run(client, token, uris, WARMUP_REQUESTS_PER_CLIENT);
+        long started = System.nanoTime();
+        long[] latencies = run(client, token, uris, REQUESTS_PER_CLIENT);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        Arrays.sort(latencies);
+        // Só o modo virtual liga o monitor; no de plataforma o contador não existe e fica 0
+        double pinned = meterRegistry.find("despesas.virtual-threads.pinned").counters().stream()
+                .mapToDouble(Counter::count).sum();
+        log.info("BENCHMARK carga HTTP modo={} clientes={} requisições={} vazão={} req/s p50={} ms p99={} ms pinning={}",
+                mode(), CLIENTS, latencies.length, String.format("%.0f", latencies.length / seconds),
+                String.format("%.1f", percentile(latencies, 0.50)), String.format("%.1f", percentile(latencies, 0.99)),
+                (long) pinned);
+
+        assertThat(latencies).hasSize(CLIENTS * REQUESTS_PER_CLIENT);
+    }
+
+    // Cada cliente faz suas requisições em sequência; qualquer status diferente de 200 derruba o teste
+    private long[] run(HttpClient client, String token, List<URI> uris, int requestsPerClient) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[requestsPerClient];
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        URI uri = uris.get(ThreadLocalRandom.current().nextInt(uris.size()));
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Authorization", "Bearer " + token)
+                                .GET()
+                                .build();
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = System.nanoTime() - sent;
+                        assertThat(response.statusCode()).as("GET %s", uri).isEqualTo(200);
+                    }
+                    return latencies;
+                }));
+            }
+
+            long[] all = new long[CLIENTS * requestsPerClient];
+            int position = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                System.arraycopy(latencies, 0, all, position, latencies.length);
+                position += latencies.length;
+            }
+            return all;
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.eduardomoia.despesas.controllers;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+// Fora do build padrão: mvn test -Pbenchmark. Referência: Tomcat com o pool padrão de threads de plataforma.
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "spring.threads.virtual.enabled=false"
+})
+class PlatformThreadsLoadBenchmarkTest extends ExpenseLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "platform";
+    }
+}
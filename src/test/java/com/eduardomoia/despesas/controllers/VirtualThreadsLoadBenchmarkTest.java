@@ -0,0 +1,40 @@
+package com.eduardomoia.despesas.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Fora do build padrão: mvn test -Pbenchmark,virtual-threads (JDK 21+). Mesmo cenário do
+// PlatformThreadsLoadBenchmarkTest com o perfil virtual-threads e o monitor de pinning ligado.
+@Tag("benchmark")
+@ActiveProfiles("virtual-threads")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+class VirtualThreadsLoadBenchmarkTest extends ExpenseLoadBenchmark {
+
+    @Autowired
+    private Environment environment;
+
+    // Abaixo do Java 21 o Spring Boot ignora spring.threads.virtual.enabled e a medição repetiria o modo de plataforma
+    @BeforeEach
+    void requireVirtualThreads() {
+        assumeTrue(Threading.VIRTUAL.isActive(environment), "threads virtuais exigem Java 21+");
+    }
+
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
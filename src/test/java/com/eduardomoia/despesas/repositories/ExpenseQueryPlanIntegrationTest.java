@@ -0,0 +1,65 @@
+package com.eduardomoia.despesas.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Confere pelo EXPLAIN do H2 que os caminhos de acesso das listagens e filtros usam os índices declarados nas entidades
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000"
+})
+@Transactional
+class ExpenseQueryPlanIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void ownerFilterShouldWalkFromUserToGroupsToExpensesThroughIndexes() {
+        String plan = explain("""
+                select e.id from expenses e
+                join groups g on g.id = e.group_id
+                join users u on u.id = g.owner_id
+                where u.email = 'plan@example.com'
+                  and e.date >= date '2024-01-01' and e.date <= date '2024-03-31'
+                  and e.category in ('FOOD', 'RENT')
+                order by e.date desc, e.id desc
+                """);
+
+        assertThat(plan)
+                .contains("IDX_GROUPS_OWNER: OWNER_ID = U.ID")
+                .contains("IDX_EXPENSES_GROUP_DATE_ID: GROUP_ID = G.ID")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void groupDateRangeShouldUseCompositeIndex() {
+        String plan = explain("""
+                select e.id from expenses e
+                where e.group_id = 1 and e.date >= date '2024-01-01' and e.date <= date '2024-03-31'
+                """);
+
+        assertThat(plan).contains("IDX_EXPENSES_GROUP_DATE_ID").doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void creatorAndDateLookupsShouldUseTheirIndexes() {
+        assertThat(explain("select e.id from expenses e where e.created_by_id = 1"))
+                .contains("IDX_EXPENSES_CREATED_BY");
+        assertThat(explain("select e.id from expenses e where e.date between date '2024-01-01' and date '2024-01-31'"))
+                .contains("IDX_EXPENSES_DATE");
+        assertThat(explain("select g.id from groups g where g.owner_id = 1"))
+                .contains("IDX_GROUPS_OWNER");
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("explain " + sql).getSingleResult()).toUpperCase();
+    }
+}
@@ -0,0 +1,146 @@
+package com.eduardomoia.despesas.repositories;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseFilterDTO;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.security.CustomUserDetailsService;
+import com.eduardomoia.despesas.services.ExpenseService;
+import com.eduardomoia.despesas.services.GroupMemberService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sem @Transactional: o cache de segundo nível só recebe as entidades confirmadas
+@Slf4j
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.show-sql=false"
+})
+class SecondLevelCacheIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupMemberService groupMemberService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void authenticationAndOwnershipChecksShouldBeServedByTheSecondLevelCacheUnderLoad() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("L2")
+                .email("l2-owner@example.com")
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+        List<Long> groupIds = new ArrayList<>();
+        for (int g = 0; g < 4; g++) {
+            Group group = groupRepository.save(Group.builder().name("Grupo L2 " + g).owner(owner).build());
+            groupIds.add(group.getId());
+            for (int i = 0; i < 5; i++) {
+                expenseService.create(new ExpenseCreateDTO("Despesa L2", new BigDecimal("10.00"),
+                        LocalDate.of(2022, 3, 1 + i), ExpenseCategory.FOOD, group.getId()), owner.getEmail());
+            }
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Cada "requisição": autenticação pelo e-mail, membros de um grupo (grupo por id, usuário por e-mail)
+        // e busca das despesas do grupo; uma a cada dez também lança uma despesa, sem invalidar as regiões lidas
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        userDetailsService.loadUserByUsername(owner.getEmail());
+                        Long groupId = groupIds.get(ThreadLocalRandom.current().nextInt(groupIds.size()));
+                        groupMemberService.findMembers(groupId, owner.getEmail());
+                        expenseService.search(new ExpenseFilterDTO(null, null, null, null, null, groupId),
+                                PageRequest.of(0, 20), owner.getEmail());
+                        if (i % 10 == 0) {
+                            expenseService.create(new ExpenseCreateDTO("Despesa L2", new BigDecimal("1.00"),
+                                    LocalDate.of(2022, 3, 10), ExpenseCategory.FOOD, groupId), owner.getEmail());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        CacheRegionStatistics users = statistics.getDomainDataRegionStatistics("user");
+        CacheRegionStatistics roles = statistics.getDomainDataRegionStatistics("user-roles");
+        CacheRegionStatistics groups = statistics.getDomainDataRegionStatistics("group");
+        CacheRegionStatistics byEmail = statistics.getQueryRegionStatistics("user-by-email");
+        log.info("Acertos L2: user={} user-roles={} group={} user-by-email={}",
+                hitRatio(users), hitRatio(roles), hitRatio(groups), hitRatio(byEmail));
+
+        // Só as primeiras leituras de cada entrada (no máximo uma por thread) vão ao banco. A região "user" fica
+        // de fora: as buscas autorizadas trazem o dono por join e ela só atende carregamentos lazy por id
+        assertThat(hitRatio(roles)).isGreaterThan(0.9);
+        assertThat(hitRatio(groups)).isGreaterThan(0.9);
+        assertThat(hitRatio(byEmail)).isGreaterThan(0.9);
+
+        // A primeira despesa de um mês/categoria grava o rollup por insert nativo, que não pode invalidar as demais regiões
+        expenseService.create(new ExpenseCreateDTO("Despesa L2", new BigDecimal("1.00"),
+                LocalDate.of(2022, 4, 1), ExpenseCategory.TRANSPORT, groupIds.get(0)), owner.getEmail());
+        long groupMisses = groups.getMissCount();
+        groupMemberService.findMembers(groupIds.get(0), owner.getEmail());
+        assertThat(groups.getMissCount()).isEqualTo(groupMisses);
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "group").tag("result", "hit").functionCounter()).isNotNull();
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long total = region.getHitCount() + region.getMissCount();
+        return total == 0 ? 0 : (double) region.getHitCount() / total;
+    }
+}
@@ -0,0 +1,66 @@
+package com.eduardomoia.despesas.security;
+
+import com.eduardomoia.despesas.config.PasswordHashingProperties;
+import com.eduardomoia.despesas.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void encodeShouldFailFastWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+        };
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingProperties properties = new PasswordHashingProperties(
+                1, 1, Duration.ofSeconds(5), Duration.ofSeconds(3), false, Duration.ofMillis(1), 4, 4);
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, properties, registry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            started.await(5, TimeUnit.SECONDS);
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+
+            while (registry.get("security.password.hashing.queue.size").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThatThrownBy(() -> encoder.encode("c"))
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .extracting("retryAfter").isEqualTo(Duration.ofSeconds(3));
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+            assertThat(encoder.matches("a", "hash:a")).isTrue();
+            assertThat(registry.get("security.password.hashing").tag("operation", "encode").timer().count())
+                    .isEqualTo(2);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.eduardomoia.despesas.security;
+
+import com.eduardomoia.despesas.config.PasswordHashingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncodingShouldFlagHashesWithAnyOtherCost() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void calibrateShouldStayWithinConfiguredBounds() {
+        PasswordHashingProperties tiny = properties(Duration.ofNanos(1), 4, 6);
+        PasswordHashingProperties huge = properties(Duration.ofHours(1), 4, 6);
+
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(tiny).getStrength()).isEqualTo(4);
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(huge).getStrength()).isEqualTo(6);
+    }
+
+    private PasswordHashingProperties properties(Duration target, int min, int max) {
+        return new PasswordHashingProperties(1, 1, Duration.ofSeconds(1), Duration.ofSeconds(1), true, target, min, max);
+    }
+}
@@ -0,0 +1,79 @@
+package com.eduardomoia.despesas.security;
+
+import com.eduardomoia.despesas.config.JwtProperties;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private VerifiedTokenCache tokenCache;
+    private PrincipalCache principalCache;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties("test-secret", 3600000, 100, true, Duration.ofSeconds(30));
+        tokenCache = new VerifiedTokenCache(properties, new SimpleMeterRegistry());
+        principalCache = new PrincipalCache(properties, new SimpleMeterRegistry());
+        jwtService = new JwtService(properties, tokenCache);
+    }
+
+    @Test
+    void verifyShouldHitCacheForRepeatedToken() {
+        UserDetails user = new User("cache@example.com", "x", List.of());
+        String token = jwtService.generateToken(user);
+
+        assertThat(jwtService.extractUsername(token)).isEqualTo("cache@example.com");
+        assertThat(jwtService.isTokenValid(token, user)).isTrue();
+
+        assertThat(tokenCache.missCount()).isEqualTo(1);
+        assertThat(tokenCache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void verifyShouldRejectTamperedTokenWithoutCachingIt() {
+        UserDetails user = new User("tamper@example.com", "x", List.of());
+        String token = jwtService.generateToken(user) + "x";
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(JWTVerificationException.class);
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(JWTVerificationException.class);
+        assertThat(jwtService.isTokenValid(token, user)).isFalse();
+        assertThat(tokenCache.hitCount()).isZero();
+    }
+
+    @Test
+    void tokenShouldCarryUserIdAndRolesForStatelessPrincipal() {
+        AuthenticatedUser user = new AuthenticatedUser(
+                42L, "Claims", "claims@example.com", "x", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        VerifiedToken token = jwtService.verify(jwtService.generateToken(user));
+        AuthenticatedUser principal = AuthenticatedUser.fromToken(token);
+
+        assertThat(principalCache.isStale(token)).isFalse();
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getUsername()).isEqualTo("claims@example.com");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void invalidatedUserShouldMakeOlderTokensStale() {
+        AuthenticatedUser user = new AuthenticatedUser(
+                7L, "Stale", "stale@example.com", "x", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        VerifiedToken token = jwtService.verify(jwtService.generateToken(user));
+
+        principalCache.invalidate(7L, "stale@example.com");
+
+        assertThat(principalCache.isStale(token)).isTrue();
+    }
+}
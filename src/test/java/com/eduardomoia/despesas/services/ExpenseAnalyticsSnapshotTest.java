@@ -0,0 +1,90 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportGrouping;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseAnalyticsSnapshotTest {
+
+    private static final ExpenseAnalyticsSnapshot.Filter ALL = new ExpenseAnalyticsSnapshot.Filter(
+            Integer.MIN_VALUE, Integer.MAX_VALUE, ExpenseAnalyticsSnapshot.Filter.ALL_CATEGORIES,
+            null, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private ExpenseAnalyticsSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        // Capacidade mínima para forçar o crescimento das colunas
+        snapshot = new ExpenseAnalyticsSnapshot(1);
+        for (int i = 0; i < 20; i++) {
+            snapshot.append(i, i % 2 == 0 ? 100 : 200, new BigDecimal("1.25"), LocalDate.of(2024, 1, 1).plusDays(i),
+                    i < 5 ? ExpenseCategory.RENT : ExpenseCategory.FOOD);
+        }
+    }
+
+    @Test
+    void aggregateShouldGroupAndFilterOverColumns() {
+        Map<Long, ExpenseAnalyticsSnapshot.Accumulator> byCategory = snapshot.aggregate(ALL, ExpenseReportGrouping.CATEGORY);
+        assertThat(byCategory.get((long) ExpenseCategory.RENT.ordinal()).count()).isEqualTo(5);
+        assertThat(byCategory.get((long) ExpenseCategory.FOOD.ordinal()).totalCents()).isEqualTo(15 * 125);
+
+        ExpenseAnalyticsSnapshot.Filter group100InFirstWeek = new ExpenseAnalyticsSnapshot.Filter(
+                (int) LocalDate.of(2024, 1, 1).toEpochDay(), (int) LocalDate.of(2024, 1, 7).toEpochDay(),
+                1 << ExpenseCategory.RENT.ordinal(), new long[]{100}, Long.MIN_VALUE, Long.MAX_VALUE);
+        Map<Long, ExpenseAnalyticsSnapshot.Accumulator> filtered = snapshot.aggregate(group100InFirstWeek, ExpenseReportGrouping.NONE);
+        // ids 0, 2 e 4: grupo 100, categoria RENT
+        assertThat(filtered.get(0L).count()).isEqualTo(3);
+
+        // 2024-01-01 foi segunda-feira: dias 0, 7 e 14 caem na chave 0
+        assertThat(snapshot.aggregate(ALL, ExpenseReportGrouping.DAY_OF_WEEK).get(0L).count()).isEqualTo(3);
+    }
+
+    @Test
+    void upsertAndRemoveShouldPatchRowsInPlace() {
+        snapshot.upsert(3, 100, new BigDecimal("10.00"), LocalDate.of(2024, 2, 1), ExpenseCategory.OTHER);
+        snapshot.upsert(3, 100, new BigDecimal("10.00"), LocalDate.of(2024, 2, 1), ExpenseCategory.OTHER);
+        snapshot.remove(0);
+        snapshot.remove(999);
+
+        Map<Long, ExpenseAnalyticsSnapshot.Accumulator> byMonth = snapshot.aggregate(ALL, ExpenseReportGrouping.MONTH);
+
+        assertThat(snapshot.size()).isEqualTo(19);
+        assertThat(byMonth.get(2024 * 12L + 1).totalCents()).isEqualTo(1000);
+        assertThat(byMonth.get(2024 * 12L).count()).isEqualTo(18);
+        assertThat(byMonth.get(2024 * 12L).maxCents()).isEqualTo(125);
+    }
+
+    @Test
+    void rowIndexShouldSurviveManyRemovalsAndGrowth() {
+        // Ids espaçados colidem no índice; remoções no meio das cadeias exercitam o deslocamento para trás
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+        snapshot = new ExpenseAnalyticsSnapshot(1);
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(2_000) * 1024L;
+            if (random.nextInt(3) == 0) {
+                snapshot.remove(id);
+                expected.remove(id);
+            } else {
+                long cents = random.nextInt(10_000);
+                snapshot.upsert(id, 1, BigDecimal.valueOf(cents, 2), LocalDate.of(2024, 1, 1), ExpenseCategory.FOOD);
+                expected.put(id, cents);
+            }
+        }
+
+        ExpenseAnalyticsSnapshot.Accumulator total = snapshot.aggregate(ALL, ExpenseReportGrouping.NONE).get(0L);
+
+        assertThat(snapshot.size()).isEqualTo(expected.size());
+        assertThat(total.count()).isEqualTo(expected.size());
+        assertThat(total.totalCents()).isEqualTo(expected.values().stream().mapToLong(Long::longValue).sum());
+    }
+}
@@ -0,0 +1,97 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseExportFormat;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000"
+})
+@Transactional
+class ExpenseExportServiceIntegrationTest {
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Test
+    void exportShouldStreamOnlyOwnersExpensesAsCsvAndNdjson() throws Exception {
+        User owner = persistUser("export@example.com");
+        User other = persistUser("export-other@example.com");
+        Group group = persistGroup(owner, "Grupo export");
+        persistExpense(group, owner, "Uber, centro", LocalDate.of(2024, 3, 2));
+        persistExpense(group, owner, "Padaria \"Pão\"", LocalDate.of(2024, 3, 1));
+        persistExpense(persistGroup(other, "Grupo alheio export"), other, "Alheia", LocalDate.of(2024, 3, 3));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long csvRows = expenseExportService.export(owner.getEmail(), ExpenseExportFormat.CSV, csv);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long jsonRows = expenseExportService.export(owner.getEmail(), ExpenseExportFormat.NDJSON, ndjson);
+
+        assertThat(csvRows).isEqualTo(2);
+        assertThat(jsonRows).isEqualTo(2);
+        assertThat(csv.toString(StandardCharsets.UTF_8).lines())
+                .hasSize(3)
+                .element(1).asString().contains("\"Uber, centro\"", "2024-03-02", "Grupo export");
+        assertThat(ndjson.toString(StandardCharsets.UTF_8).lines())
+                .hasSize(2)
+                .element(1).asString().contains("\"description\":\"Padaria \\\"Pão\\\"\"", "\"date\":\"2024-03-01\"");
+    }
+
+    private void persistExpense(Group group, User createdBy, String description, LocalDate date) {
+        expenseRepository.save(Expense.builder()
+                .description(description)
+                .amount(new BigDecimal("12.34"))
+                .date(date)
+                .category(ExpenseCategory.TRANSPORT)
+                .group(group)
+                .createdBy(createdBy)
+                .build());
+    }
+
+    private Group persistGroup(User owner, String name) {
+        return groupRepository.save(Group.builder()
+                .name(name)
+                .owner(owner)
+                .build());
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Export")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
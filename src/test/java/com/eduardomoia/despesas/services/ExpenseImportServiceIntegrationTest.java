@@ -0,0 +1,154 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.ExpenseImportProperties;
+import com.eduardomoia.despesas.dtos.expense.ExpenseImportJobDTO;
+import com.eduardomoia.despesas.entities.ExpenseImportJob;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseImportFormat;
+import com.eduardomoia.despesas.entities.enums.ImportJobStatus;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.repositories.ExpenseImportJobRepository;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sem @Transactional: a importação roda em outra thread e precisa enxergar os dados já confirmados
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "despesas.import.chunk-size=2"
+})
+class ExpenseImportServiceIntegrationTest {
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private ExpenseImportJobRepository jobRepository;
+
+    @Autowired
+    private ExpenseImportProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Test
+    void csvImportShouldPersistValidRowsInChunksAndReportRejections() throws Exception {
+        User owner = persistUser("import-csv@example.com");
+        Group group = persistGroup(owner, "Grupo importação CSV");
+        String csv = """
+                date;description;amount;category
+                01/03/2024;"Mercado; bairro";-10,50;food
+                02/03/2024;Uber;23,00;TRANSPORT
+                03/03/2024;Sem valor;;OTHER
+                2024-03-04;Cinema;40.00;LAZER
+                05/03/2024;Aluguel;1.500,00;RENT
+                """;
+
+        ExpenseImportJobDTO submitted = expenseImportService.submit(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "extrato.csv",
+                ExpenseImportFormat.CSV, group.getId(), owner.getEmail());
+        ExpenseImportJobDTO job = awaitFinished(submitted.id(), owner.getEmail());
+
+        assertThat(job.status()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(job.processedRows()).isEqualTo(5);
+        assertThat(job.importedRows()).isEqualTo(3);
+        assertThat(job.rejectedRows()).isEqualTo(2);
+        assertThat(job.rowsPerSecond()).isGreaterThanOrEqualTo(0.0);
+        assertThat(expenseRepository.findResponsesByGroupId(group.getId(), Pageable.unpaged()).getContent())
+                .extracting(e -> e.description() + "=" + e.amount())
+                .containsExactlyInAnyOrder("Mercado; bairro=10.50", "Uber=23.00", "Aluguel=1500.00");
+    }
+
+    @Test
+    void resumeShouldSkipRowsCommittedBeforeTheFailure() throws Exception {
+        User owner = persistUser("import-ofx@example.com");
+        Group group = persistGroup(owner, "Grupo importação OFX");
+        String ofx = """
+                OFXHEADER:100
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240301120000[-3:BRT]<TRNAMT>-10.00<MEMO>Ja importada 1</STMTTRN>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240302<TRNAMT>-11.00<MEMO>Ja importada 2</STMTTRN>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240303<TRNAMT>-12.00<MEMO>Padaria &amp; Cia</STMTTRN>
+                <STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20240304<TRNAMT>500.00<MEMO>Salario</STMTTRN>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240305<TRNAMT>-14.00<NAME>Farmacia</STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+        Files.createDirectories(properties.storageDir());
+        Path file = Files.writeString(properties.storageDir().resolve("resume-test.import"), ofx);
+
+        ExpenseImportJob failed = jobRepository.save(ExpenseImportJob.builder()
+                .owner(owner)
+                .group(group)
+                .format(ExpenseImportFormat.OFX)
+                .status(ImportJobStatus.FAILED)
+                .storagePath(file.toString())
+                .processedRows(2)
+                .importedRows(2)
+                .lastError("Falha simulada")
+                .createdAt(Instant.now())
+                .build());
+
+        expenseImportService.resume(failed.getId(), owner.getEmail());
+        ExpenseImportJobDTO job = awaitFinished(failed.getId(), owner.getEmail());
+
+        assertThat(job.status()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(job.processedRows()).isEqualTo(5);
+        assertThat(job.importedRows()).isEqualTo(4);
+        assertThat(job.rejectedRows()).isEqualTo(1);
+        assertThat(job.lastError()).isNull();
+        assertThat(expenseRepository.findResponsesByGroupId(group.getId(), Pageable.unpaged()).getContent())
+                .extracting(e -> e.description())
+                .containsExactlyInAnyOrder("Padaria & Cia", "Farmacia");
+        assertThat(file).doesNotExist();
+    }
+
+    private ExpenseImportJobDTO awaitFinished(Long jobId, String email) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ExpenseImportJobDTO job = expenseImportService.findById(jobId, email);
+            if (job.status() == ImportJobStatus.COMPLETED || job.status() == ImportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Importação não terminou a tempo: " + jobId);
+    }
+
+    private Group persistGroup(User owner, String name) {
+        return groupRepository.save(Group.builder()
+                .name(name)
+                .owner(owner)
+                .build());
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Import")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
@@ -0,0 +1,121 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseFilterDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportGrouping;
+import com.eduardomoia.despesas.dtos.expense.ExpenseReportRowDTO;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional
+class ExpenseReportServiceIntegrationTest {
+
+    private static final ExpenseFilterDTO NO_FILTER = new ExpenseFilterDTO(null, null, null, null, null, null);
+
+    @Autowired
+    private ExpenseReportService expenseReportService;
+
+    @Autowired
+    private ExpenseAnalyticsCache analyticsCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void reportShouldLoadSnapshotOnceAndApplyCommittedChanges() {
+        User owner = persistUser("report@example.com");
+        User other = persistUser("report-other@example.com");
+        Group group = persistGroup(owner, "Grupo relatório");
+        persistExpense(group, owner, "10.00", LocalDate.of(2024, 1, 10), ExpenseCategory.FOOD);
+        persistExpense(group, owner, "30.00", LocalDate.of(2024, 1, 20), ExpenseCategory.FOOD);
+        persistExpense(group, owner, "100.00", LocalDate.of(2024, 2, 5), ExpenseCategory.RENT);
+        persistExpense(persistGroup(other, "Grupo relatório alheio"), other, "999.00", LocalDate.of(2024, 1, 1),
+                ExpenseCategory.FOOD);
+
+        ExpenseReportDTO byCategory = expenseReportService.report(ExpenseReportGrouping.CATEGORY, NO_FILTER, owner.getEmail());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ExpenseReportDTO january = expenseReportService.report(ExpenseReportGrouping.MONTH,
+                new ExpenseFilterDTO(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null, null, null, null),
+                owner.getEmail());
+        long cachedStatements = statistics.getPrepareStatementCount();
+
+        assertThat(byCategory.rows()).extracting(ExpenseReportRowDTO::key).containsExactly("FOOD", "RENT");
+        assertThat(byCategory.rows().get(0).total()).isEqualByComparingTo("40.00");
+        assertThat(byCategory.rows().get(0).average()).isEqualByComparingTo("20.00");
+        assertThat(byCategory.total()).isEqualByComparingTo("140.00");
+        assertThat(january.rows()).extracting(ExpenseReportRowDTO::key).containsExactly("2024-01");
+        // Só a resolução do id do usuário; a agregação roda no snapshot
+        assertThat(cachedStatements).isEqualTo(1);
+
+        Expense added = persistExpense(group, owner, "5.50", LocalDate.of(2024, 2, 6), ExpenseCategory.RENT);
+        analyticsCache.onExpenseChanged(ExpenseChangedEvent.saved(added));
+
+        ExpenseReportDTO afterPatch = expenseReportService.report(ExpenseReportGrouping.NONE, NO_FILTER, owner.getEmail());
+        assertThat(afterPatch.total()).isEqualByComparingTo("145.50");
+        assertThat(afterPatch.count()).isEqualTo(4);
+    }
+
+    private Expense persistExpense(Group group, User createdBy, String amount, LocalDate date, ExpenseCategory category) {
+        return expenseRepository.save(Expense.builder()
+                .description("Despesa " + date)
+                .amount(new BigDecimal(amount))
+                .date(date)
+                .category(category)
+                .group(group)
+                .createdBy(createdBy)
+                .build());
+    }
+
+    private Group persistGroup(User owner, String name) {
+        return groupRepository.save(Group.builder()
+                .name(name)
+                .owner(owner)
+                .build());
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Report")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
@@ -0,0 +1,161 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseUpdateDTO;
+import com.eduardomoia.despesas.entities.ExpenseMonthlyRollup;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.repositories.ExpenseMonthlyRollupRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000"
+})
+@Transactional
+class ExpenseRollupServiceIntegrationTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Autowired
+    private ExpenseMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rollupShouldFollowCreateUpdateAndDelete() {
+        User owner = userRepository.save(User.builder()
+                .name("Rollup")
+                .email("rollup@example.com")
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+        Group group = groupRepository.save(Group.builder().name("Grupo rollup").owner(owner).build());
+
+        ExpenseResponseDTO first = expenseService.create(new ExpenseCreateDTO(
+                "Mercado", new BigDecimal("40.00"), LocalDate.of(2024, 5, 2), ExpenseCategory.FOOD, group.getId()),
+                owner.getEmail());
+        expenseService.create(new ExpenseCreateDTO(
+                "Feira", new BigDecimal("10.50"), LocalDate.of(2024, 5, 20), ExpenseCategory.FOOD, group.getId()),
+                owner.getEmail());
+
+        assertThat(rollupsOf(group)).singleElement().satisfies(rollup -> {
+            assertThat(rollup.getPeriodStart()).isEqualTo(LocalDate.of(2024, 5, 1));
+            assertThat(rollup.getTotal()).isEqualByComparingTo("50.50");
+            assertThat(rollup.getExpenseCount()).isEqualTo(2);
+        });
+
+        expenseService.update(first.id(), new ExpenseUpdateDTO(
+                "Aluguel", new BigDecimal("900.00"), LocalDate.of(2024, 6, 5), ExpenseCategory.RENT), null, owner.getEmail());
+
+        assertThat(rollupsOf(group)).hasSize(2);
+        assertThat(expenseRollupService.findInconsistencies()).isEmpty();
+
+        expenseService.delete(first.id(), owner.getEmail());
+
+        assertThat(rollupsOf(group)).singleElement()
+                .extracting(ExpenseMonthlyRollup::getCategory).isEqualTo(ExpenseCategory.FOOD);
+        assertThat(expenseRollupService.findInconsistencies()).isEmpty();
+    }
+
+    private List<ExpenseMonthlyRollup> rollupsOf(Group group) {
+        entityManager.flush();
+        entityManager.clear();
+        return rollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getGroup().getId().equals(group.getId()))
+                .toList();
+    }
+
+    // Sem transação no teste: cada "requisição" precisa da própria transação para disputar a mesma chave
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentFirstExpensesOfTheSameKeyShouldBothBeCounted() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("Rollup concorrente")
+                .email("rollup-race@example.com")
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+        Group group = groupRepository.save(Group.builder().name("Grupo rollup concorrente").owner(owner).build());
+        LocalDate date = LocalDate.of(2024, 8, 10);
+
+        // A primeira transação grava a linha e segura o commit até a segunda também não encontrar a linha e tentar inseri-la
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                expenseRollupService.apply(group.getId(), date, ExpenseCategory.FOOD, new BigDecimal("10.00"), 1);
+                firstInserted.countDown();
+                await(releaseFirst);
+            }));
+            assertThat(firstInserted.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                    expenseRollupService.apply(group.getId(), date, ExpenseCategory.FOOD, new BigDecimal("5.00"), 1)));
+            Thread.sleep(300);
+            releaseFirst.countDown();
+
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            releaseFirst.countDown();
+            executor.shutdown();
+        }
+
+        assertThat(rollupRepository.findAllProjections())
+                .filteredOn(row -> row.groupId().equals(group.getId()))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.total()).isEqualByComparingTo("15.00");
+                    assertThat(row.expenseCount()).isEqualTo(2);
+                });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
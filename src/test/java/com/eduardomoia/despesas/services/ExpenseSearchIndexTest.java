@@ -0,0 +1,57 @@
+package com.eduardomoia.despesas.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseSearchIndexTest {
+
+    private ExpenseSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ExpenseSearchIndex();
+        index.index(1, 10, "Aluguel de março");
+        index.index(2, 10, "Uber para o aeroporto");
+        index.index(3, 10, "Uber Eats - almoço");
+        index.index(4, 20, "Uber centro");
+        index.index(5, 10, "Farmácia São João");
+    }
+
+    @Test
+    void searchShouldFoldAccentsAndCase() {
+        assertThat(index.search("MARCO", id -> true, 10)).extracting(ExpenseSearchIndex.Hit::expenseId).containsExactly(1L);
+        assertThat(index.search("farmacia sao", id -> true, 10)).extracting(ExpenseSearchIndex.Hit::expenseId).containsExactly(5L);
+    }
+
+    @Test
+    void searchShouldRequireAllTermsAndRankExactMatchesAbovePrefixes() {
+        index.index(6, 10, "Hotel em Uberlândia");
+
+        assertThat(index.search("uber almoço", id -> true, 10)).extracting(ExpenseSearchIndex.Hit::expenseId)
+                .containsExactly(3L);
+        // "uberlandia" só casa por prefixo e fica atrás, apesar do id maior; empates vão para o id mais recente
+        assertThat(index.search("uber", id -> true, 10)).extracting(ExpenseSearchIndex.Hit::expenseId)
+                .containsExactly(4L, 3L, 2L, 6L);
+        assertThat(index.search("ube", id -> true, 10)).extracting(ExpenseSearchIndex.Hit::expenseId)
+                .containsExactly(6L, 4L, 3L, 2L);
+    }
+
+    @Test
+    void searchShouldRespectGroupFilterAndLimit() {
+        assertThat(index.search("uber", groupId -> groupId == 20, 10)).extracting(ExpenseSearchIndex.Hit::expenseId)
+                .containsExactly(4L);
+        assertThat(index.search("uber", groupId -> true, 2)).hasSize(2);
+    }
+
+    @Test
+    void reindexAndRemoveShouldDropStaleTokens() {
+        index.index(2, 10, "Táxi para o aeroporto");
+        index.remove(4);
+
+        assertThat(index.search("uber", id -> true, 10)).extracting(ExpenseSearchIndex.Hit::expenseId).containsExactly(3L);
+        assertThat(index.search("taxi", id -> true, 10)).extracting(ExpenseSearchIndex.Hit::expenseId).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,126 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.ExpenseSearchProjection;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000"
+})
+@Transactional
+class ExpenseSearchServiceIntegrationTest {
+
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Test
+    void searchShouldReturnRankedResultsOnlyFromCallersGroups() {
+        User owner = persistUser("search-text@example.com");
+        User other = persistUser("search-text-other@example.com");
+        Group group = persistGroup(owner, "Grupo texto");
+        Expense rent = persistExpense(group, owner, "Aluguel apartamento");
+        persistExpense(group, owner, "Uber aeroporto");
+        persistExpense(persistGroup(other, "Grupo texto alheio"), other, "Aluguel alheio");
+
+        // As alterações do teste não são confirmadas, então o índice é recarregado dentro da própria transação
+        expenseSearchService.rebuild();
+
+        assertThat(expenseSearchService.search("ALUGUEL", 20, owner.getEmail()))
+                .extracting(ExpenseResponseDTO::id)
+                .containsExactly(rent.getId());
+        assertThat(expenseSearchService.search("aero", 20, owner.getEmail()))
+                .extracting(ExpenseResponseDTO::description)
+                .containsExactly("Uber aeroporto");
+        assertThat(expenseSearchService.search("uber", 20, other.getEmail())).isEmpty();
+    }
+
+    @Test
+    void rebuildShouldReplayChangesCommittedWhileRowsAreRead() {
+        User owner = persistUser("search-rebuild@example.com");
+        Group group = persistGroup(owner, "Grupo recarga");
+        Expense renamed = persistExpense(group, owner, "Mercado semanal");
+        Expense deleted = persistExpense(group, owner, "Padaria esquina");
+
+        // Os eventos chegam depois de a leitura já ter devolvido as linhas antigas
+        AtomicBoolean fired = new AtomicBoolean();
+        expenseSearchService.rebuild(() -> Stream.of(
+                        new ExpenseSearchProjection(renamed.getId(), group.getId(), "Mercado semanal"),
+                        new ExpenseSearchProjection(deleted.getId(), group.getId(), "Padaria esquina"))
+                .peek(row -> {
+                    if (fired.compareAndSet(false, true)) {
+                        expenseSearchService.onExpenseChanged(event(ExpenseChangedEvent.Type.SAVED, renamed, "Feira orgânica"));
+                        expenseSearchService.onExpenseChanged(event(ExpenseChangedEvent.Type.DELETED, deleted, null));
+                    }
+                }));
+
+        assertThat(expenseSearchService.search("feira", 20, owner.getEmail()))
+                .extracting(ExpenseResponseDTO::id)
+                .containsExactly(renamed.getId());
+        assertThat(expenseSearchService.search("mercado", 20, owner.getEmail())).isEmpty();
+        assertThat(expenseSearchService.search("padaria", 20, owner.getEmail())).isEmpty();
+    }
+
+    private ExpenseChangedEvent event(ExpenseChangedEvent.Type type, Expense expense, String description) {
+        return new ExpenseChangedEvent(type, expense.getId(), expense.getGroup().getId(),
+                expense.getGroup().getOwner().getId(), description, expense.getAmount(), expense.getDate(),
+                expense.getCategory(), null, null);
+    }
+
+    private Expense persistExpense(Group group, User createdBy, String description) {
+        return expenseRepository.save(Expense.builder()
+                .description(description)
+                .amount(new BigDecimal("10.00"))
+                .date(LocalDate.of(2024, 6, 1))
+                .category(ExpenseCategory.OTHER)
+                .group(group)
+                .createdBy(createdBy)
+                .build());
+    }
+
+    private Group persistGroup(User owner, String name) {
+        return groupRepository.save(Group.builder()
+                .name(name)
+                .owner(owner)
+                .build());
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Search")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
@@ -0,0 +1,288 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseBatchResultDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseFilterDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSliceDTO;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional
+class ExpenseServiceIntegrationTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void listingPagesShouldNotIssueOneSelectPerRow() {
+        User owner = persistUser("page-owner@example.com");
+        User other = persistUser("page-creator@example.com");
+        Group group = persistGroup(owner, "Grupo paginado");
+        for (int i = 0; i < 20; i++) {
+            // createdBy diferente do usuário autenticado obrigaria um select extra por linha no mapeamento antigo
+            persistExpense(group, i % 2 == 0 ? owner : other, LocalDate.of(2024, 2, 1).plusDays(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        PageRequest page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "date"));
+
+        statistics.clear();
+        var byGroup = expenseService.findByGroup(group.getId(), page, owner.getEmail());
+        long byGroupStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        var all = expenseService.findAll(page, owner.getEmail());
+        long allStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        var slice = expenseService.scroll(null, 20, owner.getEmail());
+        long sliceStatements = statistics.getPrepareStatementCount();
+
+        assertThat(byGroup.getContent()).hasSize(20).allSatisfy(dto -> assertThat(dto.createdByName()).isNotNull());
+        assertThat(all.getContent()).hasSize(20);
+        assertThat(slice.content()).hasSize(20);
+        // dono do grupo (só no filtro por grupo) + página + count, independente do tamanho da página
+        assertThat(byGroupStatements).isEqualTo(3);
+        assertThat(allStatements).isEqualTo(2);
+        assertThat(sliceStatements).isEqualTo(1);
+    }
+
+    @Test
+    void scrollShouldWalkAllExpensesWithoutGapsOrDuplicates() {
+        User owner = persistUser("scroll@example.com");
+        Group group = persistGroup(owner, "Grupo scroll");
+        for (int i = 0; i < 7; i++) {
+            // Datas repetidas forçam o desempate pelo id
+            persistExpense(group, owner, LocalDate.of(2024, 1, 1 + i / 2));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ExpenseSliceDTO slice = expenseService.scrollByGroup(group.getId(), cursor, 3, owner.getEmail());
+            slice.content().stream().map(ExpenseResponseDTO::id).forEach(seen::add);
+            cursor = slice.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = expenseService.scroll(null, 100, owner.getEmail()).content().stream()
+                .map(ExpenseResponseDTO::id)
+                .toList();
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates().isEqualTo(expected);
+    }
+
+    @Test
+    void scrollShouldRejectMalformedCursor() {
+        User owner = persistUser("scroll-bad@example.com");
+
+        assertThatThrownBy(() -> expenseService.scroll("not-a-cursor", 10, owner.getEmail()))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void searchShouldCombineFiltersWithoutOneSelectPerRow() {
+        User owner = persistUser("search@example.com");
+        User other = persistUser("search-other@example.com");
+        Group group = persistGroup(owner, "Grupo busca");
+        Group second = persistGroup(owner, "Grupo busca 2");
+        for (int i = 0; i < 10; i++) {
+            persistExpense(i % 2 == 0 ? group : second, owner, LocalDate.of(2024, 4, 1 + i));
+        }
+        persistExpense(persistGroup(other, "Grupo busca alheio"), other, LocalDate.of(2024, 4, 3));
+        expenseRepository.save(Expense.builder()
+                .description("Cara")
+                .amount(new BigDecimal("999.00"))
+                .date(LocalDate.of(2024, 4, 4))
+                .category(ExpenseCategory.FOOD)
+                .group(group)
+                .createdBy(owner)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        PageRequest page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "date"));
+
+        statistics.clear();
+        var byRange = expenseService.search(new ExpenseFilterDTO(LocalDate.of(2024, 4, 2), LocalDate.of(2024, 4, 7),
+                Set.of(ExpenseCategory.OTHER), null, new BigDecimal("100.00"), null), page, owner.getEmail());
+        long statements = statistics.getPrepareStatementCount();
+
+        var byGroup = expenseService.search(new ExpenseFilterDTO(null, null, null, new BigDecimal("500"), null,
+                group.getId()), page, owner.getEmail());
+
+        assertThat(byRange.getContent()).extracting(ExpenseResponseDTO::date)
+                .containsExactly(LocalDate.of(2024, 4, 7), LocalDate.of(2024, 4, 6), LocalDate.of(2024, 4, 5),
+                        LocalDate.of(2024, 4, 4), LocalDate.of(2024, 4, 3), LocalDate.of(2024, 4, 2));
+        assertThat(byRange.getContent()).allSatisfy(dto -> assertThat(dto.groupName()).isNotNull());
+        assertThat(byGroup.getContent()).extracting(ExpenseResponseDTO::description).containsExactly("Cara");
+        // página com fetch join + roles (EAGER) do único createdBy; página incompleta dispensa o count e o dono é filtro
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @Test
+    void searchShouldRejectInvertedRanges() {
+        User owner = persistUser("search-invalid@example.com");
+        ExpenseFilterDTO filter = new ExpenseFilterDTO(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1),
+                null, null, null, null);
+
+        assertThatThrownBy(() -> expenseService.search(filter, PageRequest.of(0, 20), owner.getEmail()))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void createBatchShouldInsertInJdbcBatchesAndReportFailedItems() {
+        User owner = persistUser("batch@example.com");
+        User other = persistUser("batch-other@example.com");
+        Group group = persistGroup(owner, "Grupo lote");
+        Group foreign = persistGroup(other, "Grupo alheio lote");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ExpenseCreateDTO> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(new ExpenseCreateDTO("Extrato " + i, new BigDecimal("1.50"), LocalDate.of(2024, 5, 1 + i % 28),
+                    ExpenseCategory.FOOD, group.getId()));
+        }
+        items.add(3, new ExpenseCreateDTO("Sem valor", null, LocalDate.of(2024, 5, 1), ExpenseCategory.FOOD, group.getId()));
+        items.add(10, new ExpenseCreateDTO("Alheia", BigDecimal.TEN, LocalDate.of(2024, 5, 1), ExpenseCategory.FOOD, foreign.getId()));
+        items.add(new ExpenseCreateDTO("Sem grupo", BigDecimal.TEN, LocalDate.of(2024, 5, 1), ExpenseCategory.FOOD, -1L));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ExpenseBatchResultDTO result = expenseService.createBatch(items, owner.getEmail());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(result.created()).isEqualTo(120);
+        assertThat(result.failed()).isEqualTo(3);
+        assertThat(result.items()).hasSize(123);
+        assertThat(result.items().get(3).error()).startsWith("amount");
+        assertThat(result.items().get(10).error()).contains("não possui acesso");
+        assertThat(result.items().get(122).error()).contains("Grupo não encontrado");
+        assertThat(result.items().get(0).expense().id()).isNotNull();
+        assertThat(expenseRepository.existsByGroup_Id(foreign.getId())).isFalse();
+        // Sem batching seriam ao menos 120 inserts; com lotes de 50 sobram poucas dezenas de statements
+        assertThat(statements).isLessThan(20);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+    }
+
+    @Test
+    void findByIdShouldAuthorizeInTheSameQueryAndOnlyCheckExistenceOnFailure() {
+        User owner = persistUser("owned-find@example.com");
+        User other = persistUser("owned-find-other@example.com");
+        Group group = persistGroup(owner, "Grupo busca por id");
+        Long expenseId = expenseRepository.save(Expense.builder()
+                .description("Despesa por id")
+                .amount(new BigDecimal("10.00"))
+                .date(LocalDate.of(2024, 6, 1))
+                .category(ExpenseCategory.OTHER)
+                .group(group)
+                .createdBy(owner)
+                .build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ExpenseResponseDTO found = expenseService.findById(expenseId, owner.getEmail());
+
+        assertThat(found.groupName()).isEqualTo("Grupo busca por id");
+        // Sem carregar o usuário, a despesa e o dono do grupo em selects separados
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThatThrownBy(() -> expenseService.findById(expenseId, other.getEmail()))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> expenseService.findById(-1L, owner.getEmail()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> expenseService.findByGroup(group.getId(), PageRequest.of(0, 10), other.getEmail()))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> expenseService.findByGroup(-1L, PageRequest.of(0, 10), owner.getEmail()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private void persistExpense(Group group, User createdBy, LocalDate date) {
+        expenseRepository.save(Expense.builder()
+                .description("Despesa " + date)
+                .amount(new BigDecimal("10.00"))
+                .date(date)
+                .category(ExpenseCategory.OTHER)
+                .group(group)
+                .createdBy(createdBy)
+                .build());
+    }
+
+    private Group persistGroup(User owner, String name) {
+        return groupRepository.save(Group.builder()
+                .name(name)
+                .description("Descricao")
+                .owner(owner)
+                .build());
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Expense")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
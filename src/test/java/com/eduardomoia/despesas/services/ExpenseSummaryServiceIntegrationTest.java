@@ -0,0 +1,137 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCategorySummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseMonthlySummaryDTO;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000"
+})
+@Transactional
+class ExpenseSummaryServiceIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private ExpenseSummaryService expenseSummaryService;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Test
+    void summariesShouldAggregateOnlyTheOwnersExpensesInRange() {
+        User owner = persistUser("summary-owner@example.com");
+        User other = persistUser("summary-other@example.com");
+        Group casa = persistGroup(owner, "Casa resumo");
+        Group viagem = persistGroup(owner, "Viagem resumo");
+        Group alheio = persistGroup(other, "Grupo alheio");
+
+        persistExpense(casa, owner, "100.00", LocalDate.of(2024, 1, 10), ExpenseCategory.RENT);
+        persistExpense(casa, owner, "30.00", LocalDate.of(2024, 1, 15), ExpenseCategory.FOOD);
+        persistExpense(viagem, owner, "20.00", LocalDate.of(2024, 2, 3), ExpenseCategory.FOOD);
+        persistExpense(viagem, owner, "999.00", LocalDate.of(2024, 4, 1), ExpenseCategory.FOOD);
+        persistExpense(alheio, other, "500.00", LocalDate.of(2024, 1, 20), ExpenseCategory.FOOD);
+        expenseRollupService.rebuild();
+
+        List<ExpenseCategorySummaryDTO> byCategory =
+                expenseSummaryService.summarizeByCategory(FROM, TO, null, owner.getEmail());
+        assertThat(byCategory).containsExactly(
+                new ExpenseCategorySummaryDTO(ExpenseCategory.FOOD, new BigDecimal("50.00"), 2, new BigDecimal("25.00")),
+                new ExpenseCategorySummaryDTO(ExpenseCategory.RENT, new BigDecimal("100.00"), 1, new BigDecimal("100.00"))
+        );
+
+        List<ExpenseMonthlySummaryDTO> byMonth =
+                expenseSummaryService.summarizeByMonth(FROM, TO, casa.getId(), owner.getEmail());
+        assertThat(byMonth).containsExactly(
+                new ExpenseMonthlySummaryDTO(YearMonth.of(2024, 1), new BigDecimal("130.00"), 2, new BigDecimal("65.00"))
+        );
+
+        // Período que não cobre meses inteiros é calculado direto sobre as despesas
+        assertThat(expenseSummaryService.summarizeByCategory(FROM.plusDays(1), TO, null, owner.getEmail()))
+                .isEqualTo(byCategory);
+
+        List<ExpenseGroupSummaryDTO> byGroup = expenseSummaryService.summarizeByGroup(FROM, TO, owner.getEmail());
+        assertThat(byGroup).extracting(ExpenseGroupSummaryDTO::groupName, ExpenseGroupSummaryDTO::total)
+                .containsExactly(
+                        tuple("Casa resumo", new BigDecimal("130.00")),
+                        tuple("Viagem resumo", new BigDecimal("20.00"))
+                );
+    }
+
+    @Test
+    void summaryShouldRejectForeignGroupAndInvertedRange() {
+        User owner = persistUser("summary-owner2@example.com");
+        User other = persistUser("summary-intruder@example.com");
+        Group group = persistGroup(owner, "Grupo privado resumo");
+
+        assertThatThrownBy(() -> expenseSummaryService.summarizeByCategory(FROM, TO, group.getId(), other.getEmail()))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> expenseSummaryService.summarizeByGroup(TO, FROM, owner.getEmail()))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private void persistExpense(Group group, User createdBy, String amount, LocalDate date, ExpenseCategory category) {
+        expenseRepository.save(Expense.builder()
+                .description("Despesa " + category)
+                .amount(new BigDecimal(amount))
+                .date(date)
+                .category(category)
+                .group(group)
+                .createdBy(createdBy)
+                .build());
+    }
+
+    private Group persistGroup(User owner, String name) {
+        return groupRepository.save(Group.builder()
+                .name(name)
+                .description("Descricao")
+                .owner(owner)
+                .build());
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Summary")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
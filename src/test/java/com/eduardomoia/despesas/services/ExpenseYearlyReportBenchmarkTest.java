@@ -0,0 +1,115 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseYearlyReportDTO;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Fora do build padrão: mvn test -Pbenchmark. Mede o relatório anual com 1 a 16 tarefas simultâneas.
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+class ExpenseYearlyReportBenchmarkTest {
+
+    private static final int GROUPS = 24;
+    private static final int EXPENSES_PER_GROUP_MONTH = 200;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ExpenseYearlyReportService expenseYearlyReportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Test
+    void yearlyReportShouldScaleWithParallelism() {
+        User owner = seed();
+        ExpenseYearlyReportDTO expected = null;
+        double baseline = 0;
+
+        // Aquecimento do JIT e do H2 antes de qualquer medição, para não favorecer as rodadas finais
+        for (int i = 0; i < ROUNDS; i++) {
+            expenseYearlyReportService.report(2023, owner.getEmail());
+        }
+
+        for (int parallelism : new int[]{1, 2, 4, 8, 16}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                ExpenseYearlyReportDTO report = expenseYearlyReportService.report(2023, owner.getEmail(), pool);
+                long started = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    report = expenseYearlyReportService.report(2023, owner.getEmail(), pool);
+                }
+                double millis = (System.nanoTime() - started) / 1_000_000.0 / ROUNDS;
+
+                if (expected == null) {
+                    expected = report;
+                    baseline = millis;
+                }
+                assertThat(report).isEqualTo(expected);
+                log.info("BENCHMARK relatório anual parallelism={} cores={} média={} ms speedup={}x",
+                        parallelism, Runtime.getRuntime().availableProcessors(),
+                        String.format("%.1f", millis), String.format("%.2f", baseline / millis));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private User seed() {
+        User owner = userRepository.save(User.builder()
+                .name("Benchmark")
+                .email("yearly-benchmark-" + System.nanoTime() + "@example.com")
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+
+        ExpenseCategory[] categories = ExpenseCategory.values();
+        for (int g = 0; g < GROUPS; g++) {
+            Group group = groupRepository.save(Group.builder()
+                    .name("Benchmark " + owner.getId() + "-" + g)
+                    .owner(owner)
+                    .build());
+            for (int month = 1; month <= 12; month++) {
+                List<ExpenseCreateDTO> items = new ArrayList<>(EXPENSES_PER_GROUP_MONTH);
+                for (int i = 0; i < EXPENSES_PER_GROUP_MONTH; i++) {
+                    items.add(new ExpenseCreateDTO("Benchmark " + i, BigDecimal.valueOf(100 + i, 2),
+                            LocalDate.of(2023, month, 1 + i % 28), categories[i % categories.length], group.getId()));
+                }
+                expenseService.createBatch(items, owner.getEmail());
+            }
+        }
+        return owner;
+    }
+}
@@ -0,0 +1,120 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.ExpenseReportProperties;
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseGroupSummaryDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseYearlyReportDTO;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sem @Transactional: as tarefas rodam em transações próprias em outras threads e precisam ver os dados confirmados
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "despesas.reports.parallelism=4"
+})
+class ExpenseYearlyReportServiceIntegrationTest {
+
+    @Autowired
+    private ExpenseYearlyReportService expenseYearlyReportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Test
+    void reportShouldMergePartialAggregatesRegardlessOfParallelism() {
+        User owner = persistUser("yearly@example.com");
+        User other = persistUser("yearly-other@example.com");
+        Group home = persistGroup(owner, "Grupo anual casa");
+        Group trips = persistGroup(owner, "Grupo anual viagens");
+        persistExpense(home, owner, "100.00", LocalDate.of(2023, 1, 10), ExpenseCategory.RENT);
+        persistExpense(home, owner, "20.00", LocalDate.of(2023, 1, 31), ExpenseCategory.FOOD);
+        persistExpense(trips, owner, "50.00", LocalDate.of(2023, 7, 1), ExpenseCategory.TRANSPORT);
+        persistExpense(trips, owner, "7.00", LocalDate.of(2023, 12, 31), ExpenseCategory.FOOD);
+        // Fora do ano e de outro dono
+        persistExpense(trips, owner, "999.00", LocalDate.of(2024, 1, 1), ExpenseCategory.FOOD);
+        persistExpense(persistGroup(other, "Grupo anual alheio"), other, "888.00", LocalDate.of(2023, 5, 5),
+                ExpenseCategory.FOOD);
+
+        ExpenseYearlyReportDTO parallel = expenseYearlyReportService.report(2023, owner.getEmail());
+        ExpenseYearlyReportDTO sequential = expenseYearlyReportService.report(2023, owner.getEmail(), new ForkJoinPool(1));
+
+        assertThat(parallel.total()).isEqualByComparingTo("177.00");
+        assertThat(parallel.count()).isEqualTo(4);
+        assertThat(parallel.months()).extracting(m -> m.month())
+                .containsExactly(YearMonth.of(2023, 1), YearMonth.of(2023, 7), YearMonth.of(2023, 12));
+        assertThat(parallel.groups()).extracting(ExpenseGroupSummaryDTO::groupName)
+                .containsExactly("Grupo anual casa", "Grupo anual viagens");
+        assertThat(parallel.categories()).hasSize(3);
+        assertThat(sequential).isEqualTo(parallel);
+    }
+
+    @Test
+    void parallelismShouldLeaveConnectionsForOtherRequests() {
+        int defaultParallelism = new ExpenseReportProperties(0, Duration.ofSeconds(30)).effectiveParallelism(10);
+
+        assertThat(defaultParallelism).isBetween(1, 5);
+        assertThat(new ExpenseReportProperties(0, Duration.ofSeconds(30)).effectiveParallelism(1)).isEqualTo(1);
+        assertThat(new ExpenseReportProperties(9, Duration.ofSeconds(30)).effectiveParallelism(10)).isEqualTo(9);
+        assertThatThrownBy(() -> new ExpenseReportProperties(10, Duration.ofSeconds(30)).effectiveParallelism(10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void reportShouldRejectYearsOutOfRange() {
+        User owner = persistUser("yearly-range@example.com");
+
+        assertThatThrownBy(() -> expenseYearlyReportService.report(1_000_000_000, owner.getEmail()))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> expenseYearlyReportService.report(0, owner.getEmail()))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    // Pelo serviço, para os dados confirmados manterem o rollup mensal consistente para os demais testes
+    private void persistExpense(Group group, User createdBy, String amount, LocalDate date, ExpenseCategory category) {
+        expenseService.create(new ExpenseCreateDTO("Despesa " + date, new BigDecimal(amount), date, category, group.getId()),
+                createdBy.getEmail());
+    }
+
+    private Group persistGroup(User owner, String name) {
+        return groupRepository.save(Group.builder()
+                .name(name)
+                .owner(owner)
+                .build());
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Yearly")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
@@ -0,0 +1,102 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.group.BudgetStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupBudgetTrackerTest {
+
+    private static final long GROUP_ID = 7L;
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 15);
+
+    private final List<BudgetThresholdCrossedEvent> alerts = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GroupBudgetTracker tracker = new GroupBudgetTracker(null, null, event -> {
+        if (event instanceof BudgetThresholdCrossedEvent alert) {
+            alerts.add(alert);
+        }
+    }, meterRegistry);
+
+    @Test
+    void shouldAlertOncePerThresholdCrossing() {
+        tracker.onBudgetChanged(new GroupBudgetChangedEvent(GROUP_ID, new BigDecimal("100.00")));
+
+        tracker.apply(GROUP_ID, MARCH, 7_000);
+        tracker.apply(GROUP_ID, MARCH, 1_000);
+        tracker.apply(GROUP_ID, MARCH, 500);
+        tracker.apply(GROUP_ID, MARCH, 2_000);
+
+        assertThat(alerts).extracting(BudgetThresholdCrossedEvent::thresholdPercent).containsExactly(80, 100);
+        assertThat(alerts.get(1).spent()).isEqualByComparingTo("105.00");
+        assertThat(meterRegistry.counter(GroupBudgetTracker.ALERTS_METRIC, "threshold", "100").count()).isEqualTo(1.0);
+
+        // Descer abaixo do limite não alerta; voltar a cruzar alerta de novo
+        tracker.apply(GROUP_ID, MARCH, -1_000);
+        tracker.apply(GROUP_ID, MARCH, 1_000);
+        assertThat(alerts).extracting(BudgetThresholdCrossedEvent::thresholdPercent).containsExactly(80, 100, 100);
+    }
+
+    @Test
+    void updateWithinTheSameMonthShouldApplyOnlyTheDifference() {
+        tracker.onBudgetChanged(new GroupBudgetChangedEvent(GROUP_ID, new BigDecimal("100.00")));
+        tracker.apply(GROUP_ID, MARCH, 9_000);
+        alerts.clear();
+
+        tracker.onExpenseChanged(new ExpenseChangedEvent(ExpenseChangedEvent.Type.SAVED, 1L, GROUP_ID, 1L,
+                "Mercado", new BigDecimal("91.00"), MARCH, null, new BigDecimal("90.00"), MARCH));
+
+        assertThat(tracker.spentCents(GROUP_ID, YearMonth.from(MARCH))).isEqualTo(9_100);
+        assertThat(alerts).isEmpty();
+
+        // Mudança de mês: sai de março e entra em abril
+        tracker.onExpenseChanged(new ExpenseChangedEvent(ExpenseChangedEvent.Type.SAVED, 1L, GROUP_ID, 1L,
+                "Mercado", new BigDecimal("91.00"), MARCH.plusMonths(1), null, new BigDecimal("91.00"), MARCH));
+
+        assertThat(tracker.spentCents(GROUP_ID, YearMonth.from(MARCH))).isZero();
+        assertThat(tracker.spentCents(GROUP_ID, YearMonth.from(MARCH.plusMonths(1)))).isEqualTo(9_100);
+    }
+
+    @Test
+    void concurrentUpdatesShouldKeepExactTotalsAndAlertExactlyOnce() throws Exception {
+        tracker.onBudgetChanged(new GroupBudgetChangedEvent(GROUP_ID, new BigDecimal("450.00")));
+        int threads = 8;
+        int incrementsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        tracker.apply(GROUP_ID, MARCH, 1);
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(tracker.spentCents(GROUP_ID, YearMonth.from(MARCH))).isEqualTo((long) threads * incrementsPerThread);
+        assertThat(alerts).extracting(BudgetThresholdCrossedEvent::thresholdPercent).containsExactly(80);
+        assertThat(GroupBudgetTracker.classify(40_000, 45_000)).isEqualTo(BudgetStatus.WARNING);
+    }
+}
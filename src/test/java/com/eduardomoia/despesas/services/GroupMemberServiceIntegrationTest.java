@@ -0,0 +1,143 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.ExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseResponseDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseShareDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSplitDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseSplitResponseDTO;
+import com.eduardomoia.despesas.dtos.expense.ExpenseUpdateDTO;
+import com.eduardomoia.despesas.dtos.group.GroupBalancesDTO;
+import com.eduardomoia.despesas.dtos.group.GroupCreateDTO;
+import com.eduardomoia.despesas.dtos.group.GroupMemberAddDTO;
+import com.eduardomoia.despesas.dtos.group.GroupMemberDTO;
+import com.eduardomoia.despesas.dtos.group.GroupResponseDTO;
+import com.eduardomoia.despesas.dtos.group.GroupSettlementCreateDTO;
+import com.eduardomoia.despesas.dtos.group.SettlementTransferDTO;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000"
+})
+@Transactional
+class GroupMemberServiceIntegrationTest {
+
+    @Autowired
+    private GroupMemberService groupMemberService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseSplitService expenseSplitService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void balancesShouldFollowSplitsUpdatesSettlementsAndDeletes() {
+        User ana = persistUser("ana-split@example.com", "Ana");
+        User bia = persistUser("bia-split@example.com", "Bia");
+        User caio = persistUser("caio-split@example.com", "Caio");
+        GroupResponseDTO trip = groupService.create(new GroupCreateDTO("Viagem dividida", null), ana.getEmail());
+        groupMemberService.addMember(trip.id(), new GroupMemberAddDTO(bia.getEmail()), ana.getEmail());
+        groupMemberService.addMember(trip.id(), new GroupMemberAddDTO(caio.getEmail()), ana.getEmail());
+
+        ExpenseResponseDTO dinner = expenseService.create(new ExpenseCreateDTO(
+                "Jantar", new BigDecimal("90.00"), LocalDate.of(2024, 7, 1), ExpenseCategory.FOOD, trip.id()), ana.getEmail());
+        ExpenseSplitResponseDTO split = expenseSplitService.split(dinner.id(), new ExpenseSplitDTO(ana.getId(), List.of(
+                new ExpenseShareDTO(ana.getId(), null),
+                new ExpenseShareDTO(bia.getId(), null),
+                new ExpenseShareDTO(caio.getId(), null))), ana.getEmail());
+
+        assertThat(split.shares()).extracting(share -> share.amount().toPlainString()).containsExactly("30.00", "30.00", "30.00");
+        assertThat(balancesOf(trip.id(), bia.getEmail()))
+                .containsEntry(ana.getId(), "60.00").containsEntry(bia.getId(), "-30.00").containsEntry(caio.getId(), "-30.00");
+
+        // Novo valor: os pesos ficam e as partes são recalculadas, com o centavo extra para o primeiro membro
+        expenseService.update(dinner.id(), new ExpenseUpdateDTO(
+                "Jantar", new BigDecimal("100.00"), LocalDate.of(2024, 7, 1), ExpenseCategory.FOOD), null, ana.getEmail());
+        assertThat(balancesOf(trip.id(), ana.getEmail()))
+                .containsEntry(ana.getId(), "66.66").containsEntry(bia.getId(), "-33.33").containsEntry(caio.getId(), "-33.33");
+
+        GroupBalancesDTO afterPayment = groupMemberService.recordSettlement(trip.id(),
+                new GroupSettlementCreateDTO(bia.getId(), ana.getId(), new BigDecimal("33.33")), bia.getEmail());
+        assertThat(afterPayment.transfers())
+                .extracting(SettlementTransferDTO::fromUserId, SettlementTransferDTO::toUserId, t -> t.amount().toPlainString())
+                .containsExactly(tuple(caio.getId(), ana.getId(), "33.33"));
+
+        // Remover a despesa desfaz a divisão; sobra só o pagamento já feito
+        expenseService.delete(dinner.id(), ana.getEmail());
+        assertThat(balancesOf(trip.id(), ana.getEmail()))
+                .containsEntry(ana.getId(), "-33.33").containsEntry(bia.getId(), "33.33").containsEntry(caio.getId(), "0.00");
+    }
+
+    @Test
+    void splitShouldRequireMembersAndOnlyMembersShouldSeeBalances() {
+        User owner = persistUser("owner-members@example.com", "Dono");
+        User member = persistUser("member-members@example.com", "Membro");
+        User outsider = persistUser("outsider-members@example.com", "Fora");
+        GroupResponseDTO house = groupService.create(new GroupCreateDTO("Casa compartilhada", null), owner.getEmail());
+        groupMemberService.addMember(house.id(), new GroupMemberAddDTO(member.getEmail()), owner.getEmail());
+        ExpenseResponseDTO bill = expenseService.create(new ExpenseCreateDTO(
+                "Luz", new BigDecimal("120.00"), LocalDate.of(2024, 7, 5), ExpenseCategory.OTHER, house.id()), owner.getEmail());
+
+        assertThatThrownBy(() -> expenseSplitService.split(bill.id(), new ExpenseSplitDTO(owner.getId(), List.of(
+                new ExpenseShareDTO(owner.getId(), 1), new ExpenseShareDTO(outsider.getId(), 1))), owner.getEmail()))
+                .isInstanceOf(BusinessException.class);
+
+        expenseSplitService.split(bill.id(), new ExpenseSplitDTO(member.getId(), List.of(
+                new ExpenseShareDTO(owner.getId(), 2), new ExpenseShareDTO(member.getId(), 1))), owner.getEmail());
+
+        assertThat(groupMemberService.findMembers(house.id(), member.getEmail()))
+                .extracting(GroupMemberDTO::userId).containsExactly(owner.getId(), member.getId());
+        assertThat(balancesOf(house.id(), member.getEmail()))
+                .containsEntry(owner.getId(), "-80.00").containsEntry(member.getId(), "80.00");
+        assertThatThrownBy(() -> groupMemberService.balances(house.id(), outsider.getEmail()))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> groupMemberService.removeMember(house.id(), member.getId(), owner.getEmail()))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private Map<Long, String> balancesOf(Long groupId, String email) {
+        GroupBalancesDTO balances = groupMemberService.balances(groupId, email);
+        assertThat(balances.members().stream().map(GroupMemberDTO::balance).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo("0");
+        return balances.members().stream()
+                .collect(Collectors.toMap(GroupMemberDTO::userId, member -> member.balance().setScale(2).toPlainString()));
+    }
+
+    private User persistUser(String email, String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(email)
+                .password("password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
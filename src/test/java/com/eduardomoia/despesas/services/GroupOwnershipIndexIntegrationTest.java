@@ -0,0 +1,138 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.group.GroupCreateDTO;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import com.eduardomoia.despesas.services.GroupOwnershipIndex.Ownership;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sem @Transactional: o índice só recebe as alterações confirmadas
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000"
+})
+class GroupOwnershipIndexIntegrationTest {
+
+    @Autowired
+    private GroupOwnershipIndex ownershipIndex;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void committedGroupsShouldBeAuthorizedWithoutOwnershipQueries() {
+        User owner = persistUser("index-owner@example.com");
+        User other = persistUser("index-other@example.com");
+        Long groupId = groupService.create(new GroupCreateDTO("Grupo índice", null), owner.getEmail()).id();
+        PageRequest page = PageRequest.of(0, 10);
+
+        assertThat(ownershipIndex.check(groupId, owner.getEmail())).isEqualTo(Ownership.OWNER);
+        assertThat(ownershipIndex.check(groupId, other.getEmail())).isEqualTo(Ownership.OTHER_OWNER);
+        assertThat(ownershipIndex.check(-1L, owner.getEmail())).isEqualTo(Ownership.UNKNOWN);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        expenseService.findByGroup(groupId, page, owner.getEmail());
+        // Só a página (incompleta, sem count): nenhuma consulta de dono nem de usuário (o id já está no cache)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThatThrownBy(() -> expenseService.findByGroup(groupId, page, other.getEmail()))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        groupService.delete(groupId, owner.getEmail());
+        assertThat(ownershipIndex.check(groupId, owner.getEmail())).isEqualTo(Ownership.UNKNOWN);
+        assertThatThrownBy(() -> expenseService.findByGroup(groupId, page, owner.getEmail()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void groupsWrittenAroundTheServiceShouldFallBackToTheDatabaseUntilVerified() {
+        User owner = persistUser("index-bypass@example.com");
+        Group group = groupRepository.save(Group.builder().name("Grupo fora do índice").owner(owner).build());
+
+        assertThat(ownershipIndex.check(group.getId(), owner.getEmail())).isEqualTo(Ownership.UNKNOWN);
+        assertThat(expenseService.findByGroup(group.getId(), PageRequest.of(0, 10), owner.getEmail())).isEmpty();
+        assertThat(ownershipIndex.findInconsistencies()).anyMatch(line -> line.startsWith("grupo " + group.getId() + " "));
+
+        ownershipIndex.verify();
+
+        assertThat(ownershipIndex.findInconsistencies()).isEmpty();
+        assertThat(ownershipIndex.check(group.getId(), owner.getEmail())).isEqualTo(Ownership.OWNER);
+    }
+
+    @Test
+    void rebuildsShouldNotHideNewGroupsNorResurrectDeletedOnes() throws Exception {
+        User owner = persistUser("index-rebuild@example.com");
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuilds = executor.submit(() -> {
+                while (running.get()) {
+                    ownershipIndex.rebuild();
+                }
+            });
+
+            // Criação e remoção aplicadas no commit valem na hora, mesmo com cargas em andamento
+            for (int i = 0; i < 30; i++) {
+                Long groupId = groupService.create(new GroupCreateDTO("Grupo carga " + i, null), owner.getEmail()).id();
+                assertThat(ownershipIndex.check(groupId, owner.getEmail())).isEqualTo(Ownership.OWNER);
+                groupService.delete(groupId, owner.getEmail());
+                assertThat(ownershipIndex.check(groupId, owner.getEmail())).isEqualTo(Ownership.UNKNOWN);
+            }
+
+            running.set(false);
+            rebuilds.get(30, TimeUnit.SECONDS);
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+
+        assertThat(ownershipIndex.findInconsistencies()).isEmpty();
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Index")
+                .email(email)
+                .password("{noop}password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
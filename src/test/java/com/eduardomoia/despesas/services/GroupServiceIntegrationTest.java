@@ -1,5 +1,8 @@
 package com.eduardomoia.despesas.services;
 
+import com.eduardomoia.despesas.dtos.group.BudgetStatus;
+import com.eduardomoia.despesas.dtos.group.GroupBudgetStatusDTO;
+import com.eduardomoia.despesas.dtos.group.GroupBudgetUpdateDTO;
 import com.eduardomoia.despesas.dtos.group.GroupCreateDTO;
 import com.eduardomoia.despesas.entities.Expense;
 import com.eduardomoia.despesas.entities.Group;
@@ -10,9 +13,14 @@ import com.eduardomoia.despesas.exceptions.BusinessException;
 import com.eduardomoia.despesas.repositories.ExpenseRepository;
 import com.eduardomoia.despesas.repositories.GroupRepository;
 import com.eduardomoia.despesas.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
@@ -20,6 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,7 +37,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @SpringBootTest
 @TestPropertySource(properties = {
         "security.jwt.secret=test-secret",
-        "security.jwt.expiration-ms=3600000"
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
 })
 @Transactional
 class GroupServiceIntegrationTest {
@@ -48,6 +58,15 @@ class GroupServiceIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private GroupBudgetTracker budgetTracker;
+
     @Test
     void deleteShouldFailWhenGroupHasExpenses() {
         User owner = persistUser("group-owner@example.com");
@@ -88,6 +107,78 @@ class GroupServiceIntegrationTest {
         assertThat(response.ownerId()).isEqualTo(owner.getId());
     }
 
+    @Test
+    void findAllShouldLoadOwnersInTheSamePageQuery() {
+        User owner = persistUser("page-groups@example.com");
+        for (int i = 0; i < 10; i++) {
+            createGroup(owner, "Grupo paginado " + i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var page = groupService.findAll(PageRequest.of(0, 10), owner.getEmail());
+
+        assertThat(page.getContent()).hasSize(10).allSatisfy(dto -> assertThat(dto.ownerName()).isEqualTo("User"));
+        // id do usuário + página + count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void budgetStatusShouldUseRunningTotalsWithoutQueryingExpenses() {
+        User owner = persistUser("budget-owner@example.com");
+        Group group = createGroup(owner, "Grupo orçamento");
+        LocalDate date = LocalDate.of(2024, 3, 10);
+
+        GroupBudgetStatusDTO initial = groupService.updateBudget(
+                group.getId(), new GroupBudgetUpdateDTO(new BigDecimal("200.00")), owner.getEmail());
+        assertThat(initial.monthlyBudget()).isEqualByComparingTo("200.00");
+
+        // Os ouvintes só rodam após o commit; aqui os eventos são entregues diretamente
+        Expense expense = expenseRepository.save(Expense.builder()
+                .description("Mercado")
+                .amount(new BigDecimal("170.00"))
+                .date(date)
+                .category(ExpenseCategory.FOOD)
+                .group(group)
+                .createdBy(owner)
+                .build());
+        budgetTracker.onExpenseChanged(ExpenseChangedEvent.saved(expense));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        GroupBudgetStatusDTO status = groupService.budgetStatus(group.getId(), YearMonth.of(2024, 3), owner.getEmail());
+
+        assertThat(status.spent()).isEqualByComparingTo("170.00");
+        assertThat(status.remaining()).isEqualByComparingTo("30.00");
+        assertThat(status.percentUsed()).isEqualByComparingTo("85.00");
+        assertThat(status.status()).isEqualTo(BudgetStatus.WARNING);
+        // orçamento do grupo já filtrado pelo dono: nenhuma soma sobre expenses
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(groupService.budgetStatus(group.getId(), YearMonth.of(2024, 4), owner.getEmail()).status())
+                .isEqualTo(BudgetStatus.OK);
+        assertThat(groupService.budgetStatuses(YearMonth.of(2024, 3), owner.getEmail()))
+                .singleElement()
+                .satisfies(dto -> assertThat(dto.spent()).isEqualByComparingTo("170.00"));
+    }
+
+    @Test
+    void updateBudgetShouldFailForNonOwner() {
+        User owner = persistUser("budget-real-owner@example.com");
+        User intruder = persistUser("budget-intruder@example.com");
+        Group group = createGroup(owner, "Grupo orçamento secreto");
+
+        assertThatThrownBy(() -> groupService.updateBudget(
+                group.getId(), new GroupBudgetUpdateDTO(new BigDecimal("10.00")), intruder.getEmail()))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
     private Group createGroup(User owner, String name) {
         Group group = Group.builder()
                 .name(name)
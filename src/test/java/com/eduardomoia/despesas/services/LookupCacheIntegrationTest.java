@@ -0,0 +1,157 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.config.CacheConfig;
+import com.eduardomoia.despesas.dtos.group.GroupCreateDTO;
+import com.eduardomoia.despesas.dtos.group.GroupResponseDTO;
+import com.eduardomoia.despesas.dtos.group.GroupUpdateDTO;
+import com.eduardomoia.despesas.dtos.user.UserCreateDTO;
+import com.eduardomoia.despesas.dtos.user.UserResponseDTO;
+import com.eduardomoia.despesas.dtos.user.UserUpdateDTO;
+import com.eduardomoia.despesas.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sem @Transactional: os puts no cache só acontecem depois do commit
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class LookupCacheIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private GroupLookupCache groupLookupCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repeatedLookupsShouldBeServedFromCacheUntilTheOwnerChanges() {
+        UserResponseDTO owner = userService.create(new UserCreateDTO("Dono cache", "cache-owner@example.com", "secret123"));
+        UserResponseDTO other = userService.create(new UserCreateDTO("Outro cache", "cache-other@example.com", "secret123"));
+        GroupResponseDTO group = groupService.create(new GroupCreateDTO("Grupo cache", null), owner.email());
+        PageRequest page = PageRequest.of(0, 10);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userService.findById(owner.id());
+        groupService.findById(group.id(), owner.email());
+        groupService.findAll(page, owner.email());
+
+        statistics.clear();
+        assertThat(userService.findById(owner.id()).name()).isEqualTo("Dono cache");
+        assertThat(groupService.findById(group.id(), owner.email()).name()).isEqualTo("Grupo cache");
+        assertThat(groupService.findAll(page, owner.email()).getContent()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // O dono continua sendo conferido mesmo com o grupo vindo do cache
+        assertThatThrownBy(() -> groupService.findById(group.id(), other.email()))
+                .isInstanceOf(AccessDeniedException.class);
+
+        groupService.update(group.id(), new GroupUpdateDTO("Grupo renomeado", null), null, owner.email());
+        assertThat(groupService.findById(group.id(), owner.email()).name()).isEqualTo("Grupo renomeado");
+        assertThat(groupService.findAll(page, owner.email()).getContent())
+                .extracting(GroupResponseDTO::name).containsExactly("Grupo renomeado");
+
+        userService.update(owner.id(), new UserUpdateDTO("Dono renomeado", "cache-owner-new@example.com"));
+        assertThat(userService.findById(owner.id()).email()).isEqualTo("cache-owner-new@example.com");
+        assertThat(groupService.findById(group.id(), "cache-owner-new@example.com").ownerName())
+                .isEqualTo("Dono renomeado");
+        assertThat(groupService.findAll(page, "cache-owner-new@example.com").getContent())
+                .extracting(GroupResponseDTO::ownerName).containsExactly("Dono renomeado");
+        // O e-mail antigo não pode continuar resolvendo para o usuário
+        assertThatThrownBy(() -> groupService.findAll(page, "cache-owner@example.com"))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "groups").tag("result", "hit").functionCounter())
+                .isNotNull();
+        assertThat(meterRegistry.find("despesas.cache.hit.ratio").tag("cache", "users").gauge().value())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    void groupPagesPerOwnerShouldStayBounded() {
+        UserResponseDTO owner = userService.create(new UserCreateDTO("Dono páginas", "cache-pages@example.com", "secret123"));
+        groupService.create(new GroupCreateDTO("Grupo páginas", null), owner.email());
+
+        // Cada size diferente é uma página distinta no cache do dono
+        for (int size = 1; size <= 100; size++) {
+            assertThat(groupService.findAll(PageRequest.of(0, size), owner.email()).getContent()).hasSize(1);
+        }
+
+        Map<?, ?> ownerPages = cacheManager.getCache(CacheConfig.GROUP_PAGES).get(owner.email(), Map.class);
+        assertThat(ownerPages).isNotNull();
+        assertThat(ownerPages.size()).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    void readThatCommitsAfterAnUpdateShouldNotCacheTheOldVersion() {
+        UserResponseDTO owner = userService.create(new UserCreateDTO("Dono corrida", "cache-race@example.com", "secret123"));
+        GroupResponseDTO group = groupService.create(new GroupCreateDTO("Grupo corrida", null), owner.email());
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            GroupResponseDTO read = readOnly.execute(status -> {
+                GroupResponseDTO before = groupLookupCache.findResponse(group.id());
+                // A alteração confirma (e despeja) enquanto a leitura ainda não confirmou
+                awaitWrite(writer, () -> groupService.update(group.id(), new GroupUpdateDTO("Grupo corrida novo", null),
+                        null, owner.email()));
+                return before;
+            });
+            assertThat(read.version()).isEqualTo(group.version());
+        } finally {
+            writer.shutdownNow();
+        }
+
+        GroupResponseDTO current = groupService.findById(group.id(), owner.email());
+        assertThat(current.name()).isEqualTo("Grupo corrida novo");
+        assertThat(current.version()).isGreaterThan(group.version());
+    }
+
+    private static void awaitWrite(ExecutorService writer, Runnable write) {
+        try {
+            writer.submit(write).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.eduardomoia.despesas.services;
+
+import com.eduardomoia.despesas.dtos.expense.RecurringExpenseCreateDTO;
+import com.eduardomoia.despesas.dtos.expense.RecurringExpenseResponseDTO;
+import com.eduardomoia.despesas.entities.Expense;
+import com.eduardomoia.despesas.entities.Group;
+import com.eduardomoia.despesas.entities.RecurringExpense;
+import com.eduardomoia.despesas.entities.User;
+import com.eduardomoia.despesas.entities.enums.ExpenseCategory;
+import com.eduardomoia.despesas.entities.enums.Role;
+import com.eduardomoia.despesas.exceptions.BusinessException;
+import com.eduardomoia.despesas.repositories.ExpenseRepository;
+import com.eduardomoia.despesas.repositories.GroupRepository;
+import com.eduardomoia.despesas.repositories.RecurringExpenseRepository;
+import com.eduardomoia.despesas.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "security.jwt.secret=test-secret",
+        "security.jwt.expiration-ms=3600000",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "despesas.recurring.batch-size=10",
+        "despesas.recurring.max-catch-up-periods=3"
+})
+@Transactional
+class RecurringExpenseServiceIntegrationTest {
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void materializeDueShouldCatchUpMissedMonthsWithoutDuplicates() {
+        User owner = persistUser("recurring-owner@example.com");
+        Group group = persistGroup(owner, "Casa recorrente");
+        RecurringExpenseResponseDTO rent = recurringExpenseService.create(new RecurringExpenseCreateDTO(
+                "Aluguel", new BigDecimal("1500.00"), ExpenseCategory.RENT, 31,
+                LocalDate.of(2024, 1, 1), null, group.getId()), owner.getEmail());
+        assertThat(rent.nextRunDate()).isEqualTo(LocalDate.of(2024, 1, 31));
+
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 4, 15))).isEqualTo(3);
+        // Rodar de novo no mesmo dia não gera nada
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 4, 15))).isZero();
+
+        List<LocalDate> dates = expensesOf(rent.id()).stream().map(Expense::getDate).sorted().toList();
+        // O dia 31 cai no último dia dos meses mais curtos
+        assertThat(dates).containsExactly(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31));
+        assertThat(recurringExpenseRepository.findById(rent.id()).orElseThrow().getNextRunDate())
+                .isEqualTo(LocalDate.of(2024, 4, 30));
+
+        // next_run_date voltando no tempo não duplica ocorrências já gravadas
+        RecurringExpense entity = recurringExpenseRepository.findById(rent.id()).orElseThrow();
+        entity.setNextRunDate(LocalDate.of(2024, 2, 29));
+        entityManager.flush();
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 5, 1))).isEqualTo(1);
+        assertThat(expensesOf(rent.id())).hasSize(4);
+    }
+
+    @Test
+    void materializeDueShouldStopAtEndDateAndLimitCatchUpPerRun() {
+        User owner = persistUser("recurring-end@example.com");
+        Group group = persistGroup(owner, "Assinaturas");
+        RecurringExpenseResponseDTO streaming = recurringExpenseService.create(new RecurringExpenseCreateDTO(
+                "Streaming", new BigDecimal("39.90"), ExpenseCategory.ENTERTAINMENT, 5,
+                LocalDate.of(2023, 1, 10), LocalDate.of(2023, 6, 30), group.getId()), owner.getEmail());
+        assertThat(streaming.nextRunDate()).isEqualTo(LocalDate.of(2023, 2, 5));
+
+        // max-catch-up-periods=3: fev, mar e abr nesta execução; mai e jun na seguinte
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 1, 1))).isEqualTo(3);
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 1, 1))).isEqualTo(2);
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 1, 1))).isZero();
+        assertThat(recurringExpenseRepository.findById(streaming.id()).orElseThrow().getNextRunDate()).isNull();
+    }
+
+    @Test
+    void materializeDueShouldProcessManyTemplatesInBatchedChunks() {
+        User owner = persistUser("recurring-bulk@example.com");
+        Group group = persistGroup(owner, "Em massa");
+        int templates = 25;
+        for (int i = 0; i < templates; i++) {
+            recurringExpenseService.create(new RecurringExpenseCreateDTO(
+                    "Assinatura " + i, new BigDecimal("10.00"), ExpenseCategory.OTHER, 1 + i % 28,
+                    LocalDate.of(2024, 1, 1), null, group.getId()), owner.getEmail());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int created = recurringExpenseService.materializeDue(LocalDate.of(2024, 2, 28));
+
+        assertThat(created).isEqualTo(templates * 2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(templates * 2);
+        // 3 lotes de até 10 modelos; inserts e updates em batch, rollup atualizado uma vez por chave
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+    }
+
+    @Test
+    void createShouldValidateDatesAndOwnership() {
+        User owner = persistUser("recurring-valid@example.com");
+        User intruder = persistUser("recurring-intruder@example.com");
+        Group group = persistGroup(owner, "Validação");
+
+        assertThatThrownBy(() -> recurringExpenseService.create(new RecurringExpenseCreateDTO(
+                "Academia", new BigDecimal("99.00"), ExpenseCategory.OTHER, 10,
+                LocalDate.of(2024, 5, 1), LocalDate.of(2024, 4, 1), group.getId()), owner.getEmail()))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> recurringExpenseService.create(new RecurringExpenseCreateDTO(
+                "Academia", new BigDecimal("99.00"), ExpenseCategory.OTHER, 10,
+                LocalDate.of(2024, 5, 1), null, group.getId()), intruder.getEmail()))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private List<Expense> expensesOf(Long recurringExpenseId) {
+        return expenseRepository.findAll().stream()
+                .filter(expense -> recurringExpenseId.equals(expense.getRecurringExpenseId()))
+                .sorted(Comparator.comparing(Expense::getDate))
+                .toList();
+    }
+
+    // Sem transação no teste: a ocorrência concorrente precisa estar pendente em outra transação e depois confirmada
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentDuplicateShouldSkipOnlyItsChunk() throws Exception {
+        User owner = persistUser("recurring-race@example.com");
+        Group group = persistGroup(owner, "Recorrências concorrentes");
+        // Só janeiro de 2019: nenhum outro teste tem modelos vencidos nessa data, e todos terminam sem próxima execução
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            ids.add(recurringExpenseService.create(new RecurringExpenseCreateDTO(
+                    "Concorrente " + i, new BigDecimal("10.00"), ExpenseCategory.OTHER, 10,
+                    LocalDate.of(2019, 1, 1), LocalDate.of(2019, 1, 31), group.getId()), owner.getEmail()).id());
+        }
+        LocalDate today = LocalDate.of(2019, 1, 15);
+
+        // "Outra instância" grava a ocorrência do primeiro modelo e só confirma depois que este lote tentou inseri-la
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> other = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                expenseRepository.saveAndFlush(Expense.builder()
+                        .description("Concorrente 0")
+                        .amount(new BigDecimal("10.00"))
+                        .date(LocalDate.of(2019, 1, 10))
+                        .category(ExpenseCategory.OTHER)
+                        .group(group)
+                        .createdBy(owner)
+                        .recurringExpenseId(ids.get(0))
+                        .recurrencePeriod(LocalDate.of(2019, 1, 1))
+                        .build());
+                inserted.countDown();
+                awaitQuietly(release);
+            }));
+            assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> run = executor.submit(() -> recurringExpenseService.materializeDue(today));
+            // Só libera quando o insert do lote já estiver executando (e esperando pela linha pendente)
+            assertThat(awaitPendingInsert()).isTrue();
+            release.countDown();
+            other.get(10, TimeUnit.SECONDS);
+
+            // Lote de 10 desfeito e pulado; o segundo lote (5 modelos) segue normalmente
+            assertThat(run.get(10, TimeUnit.SECONDS)).isEqualTo(5);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        // A execução seguinte retoma o lote pulado, sem duplicar a ocorrência já gravada
+        assertThat(recurringExpenseService.materializeDue(today)).isEqualTo(9);
+        assertThat(recurringExpenseRepository.findAllById(ids))
+                .allSatisfy(recurring -> assertThat(recurring.getNextRunDate()).isNull());
+    }
+
+    // O H2 não preenche BLOCKER_ID na espera por linha do MVStore: a sessão aparece RUNNING no próprio insert
+    private boolean awaitPendingInsert() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Integer running = jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS
+                    WHERE SESSION_STATE = 'RUNNING' AND LOWER(EXECUTING_STATEMENT) LIKE 'insert into expenses%'
+                    """, Integer.class);
+            if (running != null && running > 0) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Group persistGroup(User owner, String name) {
+        return groupRepository.save(Group.builder().name(name).owner(owner).build());
+    }
+
+    private User persistUser(String email) {
+        return userRepository.save(User.builder()
+                .name("User")
+                .email(email)
+                .password("password")
+                .roles(Set.of(Role.ROLE_USER))
+                .build());
+    }
+}
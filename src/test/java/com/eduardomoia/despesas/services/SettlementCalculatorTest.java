@@ -0,0 +1,56 @@
+package com.eduardomoia.despesas.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementCalculatorTest {
+
+    @Test
+    void shouldPairEqualAmountsDirectly() {
+        Map<Long, Long> balances = Map.of(1L, 3_000L, 2L, -3_000L, 3L, 5_000L, 4L, -5_000L);
+
+        List<SettlementCalculator.Transfer> transfers = SettlementCalculator.settle(balances);
+
+        assertThat(transfers).containsExactlyInAnyOrder(
+                new SettlementCalculator.Transfer(2L, 1L, 3_000L),
+                new SettlementCalculator.Transfer(4L, 3L, 5_000L));
+    }
+
+    @Test
+    void shouldSettleLargeGroupsWithAtMostNMinusOneTransfers() {
+        Random random = new Random(42);
+        int members = 800;
+        Map<Long, Long> balances = new HashMap<>();
+        long sum = 0;
+        for (long userId = 1; userId < members; userId++) {
+            long cents = random.nextInt(200_001) - 100_000;
+            balances.put(userId, cents);
+            sum += cents;
+        }
+        balances.put((long) members, -sum);
+
+        List<SettlementCalculator.Transfer> transfers = SettlementCalculator.settle(balances);
+
+        assertThat(transfers.size()).isLessThan(members);
+        Map<Long, Long> remaining = new HashMap<>(balances);
+        for (SettlementCalculator.Transfer transfer : transfers) {
+            assertThat(transfer.cents()).isPositive();
+            remaining.merge(transfer.fromUserId(), transfer.cents(), Long::sum);
+            remaining.merge(transfer.toUserId(), -transfer.cents(), Long::sum);
+        }
+        assertThat(remaining.values()).allMatch(cents -> cents == 0);
+    }
+
+    @Test
+    void allocateShouldDistributeRoundingCentsDeterministically() {
+        assertThat(ExpenseSplitService.allocate(10_000, new int[]{1, 1, 1})).containsExactly(3_334, 3_333, 3_333);
+        assertThat(ExpenseSplitService.allocate(1_000, new int[]{2, 1, 1})).containsExactly(500, 250, 250);
+        assertThat(ExpenseSplitService.allocate(1, new int[]{1, 1})).containsExactly(1, 0);
+    }
+}